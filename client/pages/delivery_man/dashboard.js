@@ -288,7 +288,7 @@ document.addEventListener('DOMContentLoaded', async function() {
 
         try {
             const token = localStorage.getItem('token');
-            const response = await fetch(`${BASE_URL}/stores/delivery-man/${userUuid}`, {
+            const response = await fetch(`${BASE_URL}/stores/delivery-man/${userUuid}?include=products`, {
                 method: 'GET',
                 headers: {
                     'Authorization': `Bearer ${token}`,
@@ -432,7 +432,7 @@ export async function getAllStores() {
     try {
         if (isOnline) {
             console.log('📡 Obteniendo tiendas desde el servidor...');
-            const response = await fetchWithTimeout(`${BASE_URL}/stores`);
+            const response = await fetchWithTimeout(`${BASE_URL}/stores?include=products`);
             const data = await handleResponse(response);
 
             // El backend retorna { data: [...] } o directamente [...]
@@ -555,7 +555,7 @@ class HybridSyncService {
         console.log("[HybridSync] 🌐 Cargando tiendas desde BACKEND...");
 
         // 1. GET al backend
-        const response = await fetch(`${BACKEND_URL}/stores`, {
+        const response = await fetch(`${BACKEND_URL}/stores?include=products`, {
           method: "GET",
           headers: this.getHeaders(),
         });
@@ -2392,7 +2392,7 @@ class HybridSyncService {
 
       // GET Tiendas
       try {
-        const storesResponse = await fetch(`${BACKEND_URL}/stores`, {
+        const storesResponse = await fetch(`${BACKEND_URL}/stores?include=products`, {
           method: "GET",
           headers: this.getHeaders(),
         });
@@ -0,0 +1,109 @@
+package mtzg.carlos.server;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a JMH JSON result with the committed baseline and prints the
+ * change per benchmark. Run by the {@code jmh} profile after the benchmarks;
+ * arguments are the result file, the baseline file, the tolerated slowdown
+ * (0.15 = 15%), whether a regression fails the build, and whether to replace
+ * the baseline with the result.
+ *
+ * A benchmark counts as regressed when it is worse than the baseline by more
+ * than the tolerance plus both runs' error margins. Scores are compared
+ * as-is, so the baseline is only meaningful for runs on comparable hardware.
+ */
+public class BenchmarkBaseline {
+
+    private BenchmarkBaseline() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        boolean failOnRegression = Boolean.parseBoolean(args[3]);
+        boolean update = Boolean.parseBoolean(args[4]);
+
+        if (!Files.exists(result)) {
+            System.out.println("No benchmark result at " + result);
+            return;
+        }
+        if (update || !Files.exists(baseline)) {
+            Files.createDirectories(baseline.getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline written to " + baseline);
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> current = index(objectMapper.readTree(result.toFile()));
+        Map<String, JsonNode> previous = index(objectMapper.readTree(baseline.toFile()));
+
+        int regressions = 0;
+        System.out.printf("%-72s %14s %14s %-6s %9s%n", "benchmark", "baseline", "current", "unit", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue().path("primaryMetric");
+            JsonNode before = previous.containsKey(entry.getKey())
+                    ? previous.get(entry.getKey()).path("primaryMetric")
+                    : null;
+            String unit = now.path("scoreUnit").asText();
+            if (before == null || !unit.equals(before.path("scoreUnit").asText())) {
+                System.out.printf("%-72s %14s %14.3f %-6s %9s%n", entry.getKey(), "-", now.path("score").asDouble(),
+                        unit, "new");
+                continue;
+            }
+            double score = now.path("score").asDouble();
+            double baseScore = before.path("score").asDouble();
+            // Throughput is better when higher, every other mode (time per operation) when lower
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double worse = higherIsBetter ? baseScore - score : score - baseScore;
+            double margin = tolerance * baseScore + error(now) + error(before);
+            boolean regressed = worse > margin;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-72s %14.3f %14.3f %-6s %+8.1f%%%s%n", entry.getKey(), baseScore, score, unit,
+                    100 * (score - baseScore) / baseScore, regressed ? "  REGRESSION" : "");
+        }
+        previous.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-72s %14s%n", key, "not run"));
+
+        if (regressions > 0) {
+            String message = regressions + " benchmark(s) slower than " + baseline.getFileName() + " by more than "
+                    + Math.round(tolerance * 100) + "% plus error";
+            if (failOnRegression) {
+                throw new IllegalStateException(message);
+            }
+            System.out.println(message);
+        }
+    }
+
+    // "utils.QrUtilsBenchmark.generateQrImage", plus e.g. "{products=20, stores=50}" for parameterized runs
+    private static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            String name = run.path("benchmark").asText().replace("mtzg.carlos.server.", "");
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").properties()
+                    .forEach(param -> params.put(param.getKey(), param.getValue().asText()));
+            indexed.put(params.isEmpty() ? name : name + params, run);
+        }
+        return indexed;
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
@@ -0,0 +1,66 @@
+package mtzg.carlos.server.modules.jwt;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import mtzg.carlos.server.modules.users.Role;
+import mtzg.carlos.server.modules.users.UserModel;
+import mtzg.carlos.server.utils.UuidUtils;
+
+/**
+ * What {@link JwtAuthenticationFilter} pays on every authenticated request:
+ * reading the subject, then validating the token against the loaded user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private UserModel user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey",
+                "fee64d29b83ce71b385f7103fa4a07ba3e7fff5af384f1c74f7d5f1f8f186526");
+        user = UserModel.builder()
+                .uuid(UuidUtils.v7())
+                .name("Repartidor")
+                .email("user@mail.com")
+                .password("unused")
+                .role(Role.USER)
+                .build();
+        token = jwtService.generateToken(user, user.getUuid());
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user, user.getUuid());
+    }
+}
@@ -0,0 +1,95 @@
+package mtzg.carlos.server.modules.stores;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mtzg.carlos.server.modules.products.ProductModel;
+import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
+import mtzg.carlos.server.utils.UuidUtils;
+
+/**
+ * The DTO mapping behind the store listing (slim DTOs from the grouped
+ * product-uuid rows) and the store detail (full product array), for a page
+ * of {@code stores} stores carrying {@code products} products each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreMapperBenchmark {
+
+    @Param({ "50" })
+    public int stores;
+
+    @Param({ "20" })
+    public int products;
+
+    private List<StoreModel> storeModels;
+    private List<Object[]> productRows;
+
+    @Setup
+    public void setUp() {
+        List<ProductModel> catalog = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            catalog.add(ProductModel.builder()
+                    .id((long) i)
+                    .uuid(UuidUtils.v7())
+                    .name("Producto " + i)
+                    .description("Descripción del producto " + i)
+                    .basePrice(10.5 + i)
+                    .build());
+        }
+        storeModels = new ArrayList<>();
+        productRows = new ArrayList<>();
+        for (long id = 0; id < stores; id++) {
+            Set<ProductModel> assortment = new HashSet<>(catalog);
+            storeModels.add(StoreModel.builder()
+                    .id(id)
+                    .uuid(UuidUtils.v7())
+                    .name("Tienda " + id)
+                    .address("Calle " + id + ", Cuernavaca")
+                    .latitude(18.85 + id / 1000d)
+                    .longitude(-99.22 - id / 1000d)
+                    .qrCode("qr/store_" + id + ".png")
+                    .products(assortment)
+                    .build());
+            for (ProductModel product : catalog) {
+                productRows.add(new Object[] { id, product.getUuid() });
+            }
+        }
+    }
+
+    @Benchmark
+    public List<StoreResponseDto> listing() {
+        Map<Long, List<UUID>> productUuids = StoreMapper.groupProductUuids(productRows);
+        return storeModels.stream()
+                .map(store -> StoreMapper.toDto(store, productUuids.getOrDefault(store.getId(), List.of())))
+                .toList();
+    }
+
+    @Benchmark
+    public List<StoreResponseDto> withProducts() {
+        return storeModels.stream()
+                .map(StoreMapper::toDtoWithProducts)
+                .toList();
+    }
+}
@@ -0,0 +1,107 @@
+package mtzg.carlos.server.modules.visits;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mtzg.carlos.server.modules.orders.OrderModel;
+import mtzg.carlos.server.modules.orders.dto.OrderRegisterDto;
+import mtzg.carlos.server.modules.products.ProductModel;
+import mtzg.carlos.server.modules.stores.StoreModel;
+import mtzg.carlos.server.modules.users.Role;
+import mtzg.carlos.server.modules.users.UserModel;
+import mtzg.carlos.server.modules.visits.dto.VisitResponseDto;
+import mtzg.carlos.server.utils.UuidUtils;
+
+/**
+ * Mapping a page of {@code visits} visits with {@code lines} orders each, as
+ * {@link VisitService#getAllVisits} does, and parsing the {@code orders} field
+ * of a visit registration with the same number of lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisitMapperBenchmark {
+
+    @Param({ "50" })
+    public int visits;
+
+    @Param({ "10" })
+    public int lines;
+
+    private List<VisitModel> visitModels;
+    private String ordersJson;
+
+    @Setup
+    public void setUp() {
+        UserModel user = UserModel.builder().uuid(UuidUtils.v7()).name("Repartidor").role(Role.USER).build();
+        StoreModel store = StoreModel.builder().uuid(UuidUtils.v7()).name("Tienda Centro").build();
+        List<ProductModel> products = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            products.add(ProductModel.builder().uuid(UuidUtils.v7()).name("Producto " + i).basePrice(12.5).build());
+        }
+
+        visitModels = new ArrayList<>();
+        for (int v = 0; v < visits; v++) {
+            Set<OrderModel> orders = new HashSet<>();
+            for (ProductModel product : products) {
+                orders.add(OrderModel.builder()
+                        .uuid(UuidUtils.v7())
+                        .quantity(3)
+                        .unitPrice(product.getBasePrice())
+                        .total(3 * product.getBasePrice())
+                        .product(product)
+                        .build());
+            }
+            visitModels.add(VisitModel.builder()
+                    .uuid(UuidUtils.v7())
+                    .date(LocalDate.now())
+                    .validation(true)
+                    .photo("uploads/visits/store_Tienda_Centro_" + v + ".jpg")
+                    .user(user)
+                    .store(store)
+                    .orders(orders)
+                    .build());
+        }
+
+        StringBuilder json = new StringBuilder("[");
+        for (ProductModel product : products) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"productUuid\":\"").append(product.getUuid()).append("\",\"quantity\":3}");
+        }
+        ordersJson = json.append(']').toString();
+    }
+
+    @Benchmark
+    public List<VisitResponseDto> toDto() {
+        return visitModels.stream()
+                .map(VisitMapper::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public List<OrderRegisterDto> readOrders() throws IOException {
+        return VisitMapper.readOrders(ordersJson);
+    }
+}
@@ -0,0 +1,53 @@
+package mtzg.carlos.server.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import com.google.zxing.WriterException;
+
+/**
+ * QR encoding plus PNG write for a new store, into a scratch directory that
+ * is removed afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QrUtilsBenchmark {
+
+    private Path baseDir;
+    private String content;
+
+    @Setup
+    public void setUp() throws IOException {
+        baseDir = Files.createTempDirectory("qr-bench");
+        content = "http://localhost:8080/api/v1/stores/" + UuidUtils.v7();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(baseDir);
+    }
+
+    @Benchmark
+    public String generateQrImage() throws WriterException, IOException {
+        return QrUtils.generateQrImage(content, "store_bench", baseDir.toString());
+    }
+}
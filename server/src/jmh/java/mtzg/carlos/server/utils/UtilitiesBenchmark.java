@@ -0,0 +1,70 @@
+package mtzg.carlos.server.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
+
+/**
+ * Building and serializing the {@link Utilities} response envelope, with the
+ * date handling Spring Boot configures on its {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilitiesBenchmark {
+
+    private ObjectMapper objectMapper;
+    private List<StoreResponseDto> stores;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        stores = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            stores.add(StoreResponseDto.builder()
+                    .uuid(UuidUtils.v7())
+                    .name("Tienda " + i)
+                    .address("Calle " + i + ", Cuernavaca")
+                    .latitude(18.85 + i / 1000d)
+                    .longitude(-99.22 - i / 1000d)
+                    .qrCode("qr/store_" + i + ".png")
+                    .productUuids(List.of(UuidUtils.v7(), UuidUtils.v7(), UuidUtils.v7()))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] simpleResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Store not found").getBody());
+    }
+
+    @Benchmark
+    public byte[] generateResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(
+                Utilities.generateResponse(HttpStatus.OK, "Stores retrieved successfully", stores).getBody());
+    }
+}
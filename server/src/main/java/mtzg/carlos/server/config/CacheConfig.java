@@ -0,0 +1,43 @@
+package mtzg.carlos.server.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DRIVER_ROUTES = "driverRoutes";
+    public static final String OPTIMIZED_ROUTES = "optimizedRoutes";
+
+    @Value("${routes.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${routes.cache.max-entries:10000}")
+    private long maxEntries;
+
+    // Evictions are deferred until the surrounding transaction commits so a
+    // concurrent read cannot repopulate the cache with pre-commit data. They
+    // only clear this node's caches; the time-to-live bounds how long another
+    // node keeps serving a route changed through this one.
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries));
+        cacheManager.setCacheNames(List.of(DRIVER_ROUTES, OPTIMIZED_ROUTES));
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
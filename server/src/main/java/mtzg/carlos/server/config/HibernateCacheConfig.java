@@ -0,0 +1,83 @@
+package mtzg.carlos.server.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Second-level cache regions for the reference entities. Every region is
+ * created here with a bounded heap and a time-to-live, and Hibernate is told to
+ * fail on any region it does not find, so a mistyped region name can't end up
+ * as an unbounded cache.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String STORES = "stores";
+    public static final String STORE_PRODUCTS = "stores.products";
+    public static final String STORE_NATURAL_IDS = "stores.natural-ids";
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_STORES = "products.stores";
+    public static final String PRODUCT_NATURAL_IDS = "products.natural-ids";
+    public static final String USERS = "users";
+    public static final String USER_STORES = "users.stores";
+    public static final String USER_NATURAL_IDS = "users.natural-ids";
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    public static final String[] DATA_REGIONS = { STORES, STORE_PRODUCTS, STORE_NATURAL_IDS, PRODUCTS,
+            PRODUCT_STORES, PRODUCT_NATURAL_IDS, USERS, USER_STORES, USER_NATURAL_IDS, QUERY_RESULTS };
+
+    @Value("${hibernate.cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${hibernate.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // A manager of its own: the provider's default one is shared by every application context in the JVM
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching
+                .getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("hibernate:" + UUID.randomUUID()),
+                new DefaultConfiguration(getClass().getClassLoader()));
+        for (String region : DATA_REGIONS) {
+            cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder
+                            .newCacheConfigurationBuilder(Object.class, Object.class,
+                                    ResourcePoolsBuilder.heap(maxEntries))
+                            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)))
+                            .build()));
+        }
+        // Table timestamps must outlive every cached query result or stale results could be served
+        cacheManager.createCache(UPDATE_TIMESTAMPS, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(1000))
+                        .withExpiry(ExpiryPolicyBuilder.noExpiration())
+                        .build()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -1,7 +1,5 @@
 package mtzg.carlos.server.config;
 
-import java.util.UUID;
-
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -12,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import mtzg.carlos.server.modules.users.Role;
 import mtzg.carlos.server.modules.users.UserModel;
 import mtzg.carlos.server.modules.users.IUserRepository;
+import mtzg.carlos.server.utils.UuidUtils;
 
 @Configuration
 @RequiredArgsConstructor
@@ -42,7 +41,7 @@ public class InitialConfig {
         return args -> {
             if (userRepository.count() == 0) {
                 UserModel admin = UserModel.builder()
-                        .uuid(UUID.randomUUID())
+                        .uuid(UuidUtils.v7())
                         .name(adminName)
                         .email(adminEmail)
                         .password(passwordEncoder.encode(adminPassword))
@@ -50,7 +49,7 @@ public class InitialConfig {
                         .build();
 
                 UserModel user = UserModel.builder()
-                        .uuid(UUID.randomUUID())
+                        .uuid(UuidUtils.v7())
                         .name(userName)
                         .email(userEmail)
                         .password(passwordEncoder.encode(userPassword))
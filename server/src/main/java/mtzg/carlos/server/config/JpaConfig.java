@@ -0,0 +1,20 @@
+package mtzg.carlos.server.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import mtzg.carlos.server.utils.NaturalIdRepositoryImpl;
+import mtzg.carlos.server.utils.SqlStatementCounter;
+
+@Configuration
+@EnableJpaRepositories(basePackages = "mtzg.carlos.server", repositoryBaseClass = NaturalIdRepositoryImpl.class)
+public class JpaConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, SqlStatementCounter.INSPECTOR);
+    }
+}
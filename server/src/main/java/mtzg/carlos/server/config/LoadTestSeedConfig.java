@@ -0,0 +1,144 @@
+package mtzg.carlos.server.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.modules.products.IProductRepository;
+import mtzg.carlos.server.modules.products.ProductModel;
+import mtzg.carlos.server.modules.stores.IStoreRepository;
+import mtzg.carlos.server.modules.stores.StoreModel;
+import mtzg.carlos.server.modules.users.IUserRepository;
+import mtzg.carlos.server.modules.users.Role;
+import mtzg.carlos.server.modules.users.UserModel;
+
+/**
+ * Seeds the data set the load test drives: {@code loadtest.stores} stores,
+ * {@code loadtest.products} products and {@code loadtest.drivers} drivers
+ * ({@code driver<n>@loadtest.local}, password {@code loadtest.password}).
+ * Every store carries {@code loadtest.products-per-store} products and every
+ * driver covers {@code loadtest.stores-per-driver} neighbouring stores.
+ * Names, UUIDs, coordinates and assortments all derive from
+ * {@code loadtest.seed}, so two runs with the same settings see the same data.
+ * Nothing is seeded when the first driver already exists.
+ */
+@Configuration
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestSeedConfig {
+
+    public static final String DRIVER_EMAIL = "driver%d@loadtest.local";
+
+    private static final double CENTER_LAT = 18.92;
+    private static final double CENTER_LNG = -99.23;
+
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${loadtest.seed:42}")
+    private long seed;
+
+    @Value("${loadtest.stores:200}")
+    private int storeCount;
+
+    @Value("${loadtest.products:300}")
+    private int productCount;
+
+    @Value("${loadtest.drivers:50}")
+    private int driverCount;
+
+    @Value("${loadtest.products-per-store:40}")
+    private int productsPerStore;
+
+    @Value("${loadtest.stores-per-driver:15}")
+    private int storesPerDriver;
+
+    @Value("${loadtest.password:@Driver1234}")
+    private String driverPassword;
+
+    @Bean
+    CommandLineRunner seedLoadTest(IStoreRepository storeRepository, IProductRepository productRepository,
+            IUserRepository userRepository) {
+        return args -> {
+            if (userRepository.findByEmail(String.format(DRIVER_EMAIL, 0)).isPresent()) {
+                System.out.println("Datos de prueba de carga ya existentes");
+                return;
+            }
+            SplittableRandom random = new SplittableRandom(seed);
+
+            // Stores come in clusters of one route each, a few hundred metres apart
+            List<StoreModel> stores = new ArrayList<>();
+            double clusterLat = CENTER_LAT;
+            double clusterLng = CENTER_LNG;
+            for (int i = 0; i < storeCount; i++) {
+                if (i % storesPerDriver == 0) {
+                    clusterLat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.2;
+                    clusterLng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.2;
+                }
+                stores.add(StoreModel.builder()
+                        .uuid(uuid("store", i))
+                        .name(String.format("Tienda LT-%05d", i))
+                        .address(String.format("Calle %d #%d, Cuernavaca", random.nextInt(1, 200), i))
+                        .latitude(clusterLat + (random.nextDouble() - 0.5) * 0.01)
+                        .longitude(clusterLng + (random.nextDouble() - 0.5) * 0.01)
+                        .build());
+            }
+            stores = storeRepository.saveAll(stores);
+
+            List<ProductModel> products = new ArrayList<>();
+            for (int i = 0; i < productCount; i++) {
+                products.add(ProductModel.builder()
+                        .uuid(uuid("product", i))
+                        .name(String.format("Producto LT-%05d", i))
+                        .description("Producto de prueba de carga " + i)
+                        .basePrice(5 + random.nextInt(0, 19_500) / 100.0)
+                        .stores(new HashSet<>())
+                        .build());
+            }
+            for (StoreModel store : stores) {
+                int first = random.nextInt(productCount);
+                for (int i = 0; i < Math.min(productsPerStore, productCount); i++) {
+                    products.get((first + i) % productCount).getStores().add(store);
+                }
+            }
+            productRepository.saveAll(products);
+
+            // One hash for every driver; BCrypt is deliberately slow
+            String password = passwordEncoder.encode(driverPassword);
+            List<UserModel> drivers = new ArrayList<>();
+            for (int d = 0; d < driverCount; d++) {
+                Set<StoreModel> route = new HashSet<>();
+                for (int i = 0; i < Math.min(storesPerDriver, storeCount); i++) {
+                    route.add(stores.get((d * storesPerDriver + i) % storeCount));
+                }
+                drivers.add(UserModel.builder()
+                        .uuid(uuid("driver", d))
+                        .name(String.format("Repartidor LT-%03d", d))
+                        .email(String.format(DRIVER_EMAIL, d))
+                        .password(password)
+                        .role(Role.USER)
+                        .stores(route)
+                        .build());
+            }
+            userRepository.saveAll(drivers);
+
+            System.out.println("Datos de prueba de carga creados: " + storeCount + " tiendas, " + productCount
+                    + " productos, " + driverCount + " repartidores");
+        };
+    }
+
+    private UUID uuid(String kind, int index) {
+        return UUID.nameUUIDFromBytes((seed + ":" + kind + ":" + index).getBytes(StandardCharsets.UTF_8));
+    }
+}
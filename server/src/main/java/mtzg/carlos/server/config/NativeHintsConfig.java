@@ -0,0 +1,77 @@
+package mtzg.carlos.server.config;
+
+import java.util.List;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.ClassUtils;
+
+import mtzg.carlos.server.utils.ReadReplicaRouter;
+
+/**
+ * Reachability metadata for the native image that Spring's AOT processing
+ * can't work out on its own. Entities are registered by Spring Data's AOT
+ * support, Lombok builders are plain code and QR codes don't touch
+ * {@code java.awt} (see {@code QrUtils}); what is left:
+ *
+ * - Jackson binding for every class in a {@code dto} package and the other
+ *   types sent as response data. The controllers return
+ *   {@code ResponseEntity<Object>}, so their signatures don't reveal them.
+ * - jjwt 0.11, which instantiates its implementation classes by name, finds
+ *   its Jackson serializer through {@code META-INF/services} and serializes
+ *   the role claim's {@link SimpleGrantedAuthority} objects.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        private static final List<String> JJWT_TYPES = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+            for (Class<?> type : dtoTypes(classLoader)) {
+                bindings.registerReflectionHints(hints.reflection(), type);
+            }
+            bindings.registerReflectionHints(hints.reflection(), ReadReplicaRouter.PoolStats.class,
+                    SimpleGrantedAuthority.class);
+
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        }
+
+        private static List<Class<?>> dtoTypes(ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(
+                    false);
+            scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+            scanner.addIncludeFilter((reader, factory) -> reader.getClassMetadata().getClassName().contains(".dto."));
+            return scanner.findCandidateComponents("mtzg.carlos.server").stream()
+                    .<Class<?>>map(definition -> ClassUtils.resolveClassName(definition.getBeanClassName(),
+                            classLoader))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package mtzg.carlos.server.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import mtzg.carlos.server.utils.ConcurrencyLimiter;
+import mtzg.carlos.server.utils.TokenBucket;
+import mtzg.carlos.server.utils.Utilities;
+
+/**
+ * Protects the API from clients that call it too often and from overload.
+ * Runs right after {@code JwtAuthenticationFilter}, so requests are told
+ * apart by user (by address before login), and answers {@code 429} with a
+ * {@code Retry-After} header when a request is refused.
+ *
+ * Rate limits are token buckets: one per user across the API
+ * ({@code rate-limit.user.*}, or {@code rate-limit.anonymous.*} per address),
+ * plus one per user for each endpoint in {@code rate-limit.endpoints}
+ * ({@code "GET /api/v1/visits=0.5/5"}: half a request per second, bursts of
+ * five), so a client stuck in a sync loop runs dry on that endpoint alone.
+ *
+ * Past those, a {@link ConcurrencyLimiter} caps the requests in flight. Every
+ * {@code rate-limit.adaptive.window-ms} it backs off when requests averaged
+ * more than {@code latency-threshold-ms} or threads waited on average more
+ * than {@code pool-wait-threshold-ms} for a primary pool connection, and
+ * grows again once they recover. Multipart uploads and critical requests
+ * are left out of that average: an upload's time is mostly the client's
+ * network, and a slow login or visit registration shouldn't shed the very
+ * requests the limit protects. The endpoints in {@code rate-limit.critical}
+ * (registering a visit, logging in) keep {@code critical-reserve} of the
+ * limit to themselves, so bulk reads are shed first.
+ *
+ * Rejections are counted in {@code ratelimit.rejected}; the current limit and
+ * requests in flight are the {@code ratelimit.concurrency.*} gauges.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final PathPatternParser PATTERNS = PathPatternParser.defaultInstance;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final ConcurrencyLimiter limiter;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final List<EndpointLimit> endpointLimits = new ArrayList<>();
+    private final List<Endpoint> criticalEndpoints = new ArrayList<>();
+
+    private long acquireCount;
+    private double acquireNanos;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.user.rate:20}")
+    private double userRate;
+
+    @Value("${rate-limit.user.burst:40}")
+    private int userBurst;
+
+    @Value("${rate-limit.anonymous.rate:10}")
+    private double anonymousRate;
+
+    @Value("${rate-limit.anonymous.burst:100}")
+    private int anonymousBurst;
+
+    @Value("${rate-limit.adaptive.latency-threshold-ms:1000}")
+    private long latencyThresholdMs;
+
+    @Value("${rate-limit.adaptive.pool-wait-threshold-ms:100}")
+    private long poolWaitThresholdMs;
+
+    @Value("${rate-limit.adaptive.retry-after-seconds:1}")
+    private long overloadRetryAfter;
+
+    private record Endpoint(String method, PathPattern pattern) {
+        boolean matches(String requestMethod, PathContainer path) {
+            return method.equalsIgnoreCase(requestMethod) && pattern.matches(path);
+        }
+    }
+
+    private record EndpointLimit(String key, Endpoint endpoint, double rate, int burst) {
+    }
+
+    public RateLimitFilter(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+            @Value("${rate-limit.endpoints:}") String endpoints,
+            @Value("${rate-limit.critical:}") String critical,
+            @Value("${rate-limit.adaptive.min-limit:10}") int minLimit,
+            @Value("${rate-limit.adaptive.max-limit:200}") int maxLimit,
+            @Value("${rate-limit.adaptive.critical-reserve:0.2}") double criticalReserve,
+            @Value("${rate-limit.adaptive.backoff:0.9}") double backoff) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.limiter = new ConcurrencyLimiter(minLimit, maxLimit, criticalReserve, backoff);
+        for (String entry : endpoints.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                String key = entry.substring(0, separator).trim();
+                String[] rate = entry.substring(separator + 1).trim().split("/");
+                endpointLimits.add(new EndpointLimit(key, endpoint(key), Double.parseDouble(rate[0]),
+                        rate.length > 1 ? Integer.parseInt(rate[1]) : 1));
+            }
+        }
+        for (String entry : critical.split(",")) {
+            if (!entry.isBlank()) {
+                criticalEndpoints.add(endpoint(entry.trim()));
+            }
+        }
+        Gauge.builder("ratelimit.concurrency.limit", limiter, ConcurrencyLimiter::limit)
+                .description("Requests allowed in flight at once")
+                .register(meterRegistry);
+        Gauge.builder("ratelimit.concurrency.in-flight", limiter, ConcurrencyLimiter::inFlight)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod()) || !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String method = request.getMethod();
+        PathContainer path = PathContainer.parsePath(path(request));
+        boolean critical = criticalEndpoints.stream().anyMatch(endpoint -> endpoint.matches(method, path));
+        String priority = critical ? "critical" : "normal";
+
+        long now = System.nanoTime();
+        long wait = takeToken(client(request), method, path, now);
+        if (wait > 0) {
+            reject(response, "rate-limit", priority, TimeUnit.NANOSECONDS.toSeconds(wait) + 1,
+                    "Too many requests, try again later");
+            return;
+        }
+        if (!limiter.tryAcquire(critical)) {
+            reject(response, "overload", priority, overloadRetryAfter, "Server busy, try again later");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (critical || isMultipart(request)) {
+                limiter.release();
+            } else {
+                limiter.release(System.nanoTime() - now);
+            }
+        }
+    }
+
+    // The endpoint's bucket first, so a request it refuses doesn't also spend the user's token
+    private long takeToken(String client, String method, PathContainer path, long now) {
+        for (EndpointLimit limit : endpointLimits) {
+            if (limit.endpoint().matches(method, path)) {
+                long wait = buckets.computeIfAbsent(client + " " + limit.key(),
+                        key -> new TokenBucket(limit.rate(), limit.burst())).tryAcquire(now);
+                if (wait > 0) {
+                    return wait;
+                }
+                break;
+            }
+        }
+        boolean anonymous = client.startsWith("ip:");
+        return buckets.computeIfAbsent(client, key -> anonymous
+                ? new TokenBucket(anonymousRate, anonymousBurst)
+                : new TokenBucket(userRate, userBurst)).tryAcquire(now);
+    }
+
+    private void reject(HttpServletResponse response, String reason, String priority, long retryAfter,
+            String message) throws IOException {
+        Counter.builder("ratelimit.rejected")
+                .description("API requests refused with 429")
+                .tag("reason", reason)
+                .tag("priority", priority)
+                .register(meterRegistry)
+                .increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Utilities.simpleResponse(HttpStatus.TOO_MANY_REQUESTS, message).getBody());
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.adaptive.window-ms:1000}")
+    void adjustConcurrencyLimit() {
+        if (!enabled) {
+            return;
+        }
+        long poolWait = poolWaitNanos();
+        int before = limiter.limit();
+        long latency = limiter.adjust(TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs),
+                poolWait > TimeUnit.MILLISECONDS.toNanos(poolWaitThresholdMs));
+        if (limiter.limit() < before) {
+            log.warn("Concurrency limit lowered to {} (average latency {} ms, pool wait {} ms)", limiter.limit(),
+                    TimeUnit.NANOSECONDS.toMillis(latency), TimeUnit.NANOSECONDS.toMillis(poolWait));
+        }
+    }
+
+    // A bucket that has refilled is the same as a new one; a token taken while it is dropped is lost
+    @Scheduled(fixedDelay = 60_000)
+    void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    // Average time to get a primary pool connection since the last window, from Hikari's Micrometer timer
+    private long poolWaitNanos() {
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", "primary").timer();
+        if (acquire == null) {
+            return 0;
+        }
+        long count = acquire.count();
+        double nanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+        long acquired = count - acquireCount;
+        double waited = nanos - acquireNanos;
+        acquireCount = count;
+        acquireNanos = nanos;
+        return acquired > 0 ? (long) (waited / acquired) : 0;
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Their time is mostly the client's upload, which says nothing about the server
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static Endpoint endpoint(String entry) {
+        int space = entry.indexOf(' ');
+        return new Endpoint(entry.substring(0, space).trim(), PATTERNS.parse(entry.substring(space + 1).trim()));
+    }
+}
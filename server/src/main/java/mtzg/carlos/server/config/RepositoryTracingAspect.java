@@ -0,0 +1,55 @@
+package mtzg.carlos.server.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opens a span named {@code IStoreRepository.findByUuid} (and so on) around
+ * every repository call. Only a span: {@code spring.data.repository.invocations}
+ * already times these calls, so an observation would record them twice.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryTracingAspect {
+
+    private final Tracer tracer;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getTarget().getClass(),
+                RepositoryTracingAspect::repositoryName);
+        Span span = tracer.nextSpan()
+                .name(repository + "." + joinPoint.getSignature().getName())
+                .tag("repository", repository)
+                .start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    // The target is Spring Data's proxy; the application interface is the one to report
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (type.getName().startsWith("mtzg.carlos.server.")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
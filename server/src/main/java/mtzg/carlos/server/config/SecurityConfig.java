@@ -1,12 +1,21 @@
 package mtzg.carlos.server.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -19,7 +28,50 @@ import mtzg.carlos.server.modules.jwt.JwtAuthenticationFilter;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final AuthenticationProvider authenticationProvider;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${metrics.scrape.password:}")
+    private String scrapePassword;
+
+    /**
+     * Actuator endpoints get their own chain, checked before the API one:
+     * health stays public for probes, everything else (the Prometheus scrape)
+     * needs HTTP Basic credentials for a scrape account that is not an
+     * application user and can't call the API. Without a configured password
+     * those endpoints are closed.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        DaoAuthenticationProvider scrapeAuthProvider = new DaoAuthenticationProvider(
+                new InMemoryUserDetailsManager(User.withUsername(scrapeUsername)
+                        .password(passwordEncoder.encode(scrapePassword))
+                        .roles("METRICS")
+                        .build()));
+        scrapeAuthProvider.setPasswordEncoder(passwordEncoder);
+        boolean scrapeEnabled = scrapePassword != null && !scrapePassword.isBlank();
+        return http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(authRequest -> {
+                    authRequest.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll();
+                    if (scrapeEnabled) {
+                        authRequest.anyRequest().hasRole("METRICS");
+                    } else {
+                        authRequest.anyRequest().denyAll();
+                    }
+                })
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(sessionManager -> sessionManager
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authenticationManager(new ProviderManager(scrapeAuthProvider))
+                .build();
+    }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -33,6 +85,7 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
                 .build();
     }
 
@@ -0,0 +1,56 @@
+package mtzg.carlos.server.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Observes every public method of the application's {@code @Service} beans
+ * as {@code app.service.method}: a timer tagged with the class, the method,
+ * the outcome and the error, plus a span named {@code Class.method} when
+ * tracing samples the request. Services answer errors with a
+ * {@code ResponseEntity} instead of throwing, so the outcome comes from the
+ * returned status, using the same values as {@code http.server.requests}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "app.service.method";
+
+    private final ObservationRegistry observationRegistry;
+
+    @Around("within(mtzg.carlos.server..*) && @within(org.springframework.stereotype.Service) "
+            + "&& execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+        Observation observation = Observation.createNotStarted(METRIC_NAME, observationRegistry)
+                .contextualName(className + "." + methodName)
+                .lowCardinalityKeyValue("class", className)
+                .lowCardinalityKeyValue("method", methodName)
+                .start();
+        String outcome = Outcome.SUCCESS.name();
+        try (Observation.Scope scope = observation.openScope()) {
+            Object result = joinPoint.proceed();
+            if (result instanceof ResponseEntity<?> response) {
+                outcome = Outcome.forStatus(response.getStatusCode().value()).name();
+            }
+            return result;
+        } catch (Throwable e) {
+            outcome = "ERROR";
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package mtzg.carlos.server.config;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import mtzg.carlos.server.utils.SqlStatementCounter;
+
+/**
+ * Counts the SQL statements each request runs and checks them against a
+ * budget: {@code sql.budget.default}, or a per-endpoint limit from
+ * {@code sql.budget.endpoints} ({@code "GET /api/v1/visits=12,GET /api/v1/stores=8"},
+ * keyed by the mapped pattern). Every request feeds {@code sql.statements};
+ * requests over budget also increment {@code sql.budget.exceeded} and, when
+ * {@code sql.budget.log-violations} is on, log the lazy associations that
+ * fired. With {@code sql.budget.enforce} the offending statement fails
+ * instead, so integration tests catch an N+1 regression.
+ *
+ * Only statements issued through Hibernate are counted; JdbcTemplate batches
+ * are not. The filter runs ahead of Spring Security, so the user lookup of
+ * the JWT filter counts against the budget too.
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Integer> endpointBudgets = new HashMap<>();
+
+    @Value("${sql.budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sql.budget.default:20}")
+    private int defaultBudget;
+
+    @Value("${sql.budget.log-violations:true}")
+    private boolean logViolations;
+
+    @Value("${sql.budget.enforce:false}")
+    private boolean enforce;
+
+    public SqlStatementBudgetFilter(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+            @Value("${sql.budget.endpoints:}") String endpoints) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+        for (String entry : endpoints.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                endpointBudgets.put(entry.substring(0, separator).trim(),
+                        Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        if (enabled) {
+            SqlStatementCounter.register(entityManagerFactory.unwrap(SessionFactoryImplementor.class));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.Scope scope = SqlStatementCounter.begin(() -> budgetFor(request), enforce);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.end();
+            record(request, scope);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Scope scope) {
+        String uri = uri(request);
+        DistributionSummary.builder("sql.statements")
+                .description("SQL statements run per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.statements());
+        int budget = budgetFor(request);
+        if (scope.statements() <= budget) {
+            return;
+        }
+        Counter.builder("sql.budget.exceeded")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+        if (logViolations) {
+            log.warn("{} {} ran {} SQL statements (budget {}); lazy loads: {}", request.getMethod(), uri,
+                    scope.statements(), budget, SqlStatementCounter.describe(scope));
+        }
+    }
+
+    private int budgetFor(HttpServletRequest request) {
+        return endpointBudgets.getOrDefault(request.getMethod() + " " + uri(request), defaultBudget);
+    }
+
+    // The mapped pattern keeps path variables out of the metric tags; unmapped requests share one tag
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,242 @@
+package mtzg.carlos.server.config;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mtzg.carlos.server.modules.jwt.JwtService;
+import mtzg.carlos.server.modules.products.ProductService;
+import mtzg.carlos.server.modules.reports.ReportService;
+import mtzg.carlos.server.modules.stores.DriverRouteService;
+import mtzg.carlos.server.modules.stores.StoreService;
+import mtzg.carlos.server.modules.users.IUserRepository;
+import mtzg.carlos.server.modules.users.Role;
+import mtzg.carlos.server.modules.users.UserModel;
+import mtzg.carlos.server.modules.users.UserService;
+import mtzg.carlos.server.modules.visits.IVisitRepository;
+import mtzg.carlos.server.modules.visits.VisitModel;
+import mtzg.carlos.server.modules.visits.VisitService;
+import mtzg.carlos.server.utils.ReadReplicaRouter;
+
+/**
+ * Warms the application up before it reports itself ready, so the first
+ * requests after a deploy don't pay for a cold JIT, lazily built Hibernate
+ * and Jackson machinery and empty caches. Runs as an
+ * {@link ApplicationReadyEvent} listener: Spring Boot only flips the
+ * readiness state to {@code ACCEPTING_TRAFFIC} once those return, so
+ * {@code /actuator/health/readiness} stays down until the warm-up is over.
+ * It is the last of those listeners, after the in-memory indexes it reads
+ * through have been loaded.
+ *
+ * The warm-up opens {@code warmup.connections} connections on each pool,
+ * reads a page of {@code warmup.page-size} rows from every repository, then
+ * {@code warmup.iterations} times calls the read paths the PWA and the
+ * dashboard hit first (catalog, stores, users, recent visits, reports, the
+ * routes of {@code warmup.drivers} drivers, a password check and a token
+ * round trip) and serializes each response the way the controllers do. The
+ * visit listing itself is left out: it reads the whole table. Failures are
+ * logged and never stop the boot.
+ *
+ * It also records the first API request after startup:
+ * {@code application.first-request.time} is the time from JVM start until
+ * it completed and {@code application.first-request.duration} how long it
+ * took, next to Spring Boot's {@code application.ready.time}.
+ *
+ * With {@code warmup.exit} the application stops after warming up, which is
+ * how the Docker build records its class-data sharing archive.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupWarmUp {
+
+    private final ReadReplicaRouter readReplicaRouter;
+    private final List<JpaRepository<?, ?>> repositories;
+    private final IUserRepository userRepository;
+    private final IVisitRepository visitRepository;
+    private final ProductService productService;
+    private final StoreService storeService;
+    private final UserService userService;
+    private final VisitService visitService;
+    private final ReportService reportService;
+    private final DriverRouteService driverRouteService;
+    private final JwtService jwtService;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+    private final AtomicLong firstRequestTime = new AtomicLong(-1);
+    private final AtomicLong firstRequestDuration = new AtomicLong(-1);
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.iterations:2}")
+    private int iterations;
+
+    @Value("${warmup.connections:10}")
+    private int connections;
+
+    @Value("${warmup.page-size:50}")
+    private int pageSize;
+
+    @Value("${warmup.drivers:20}")
+    private int drivers;
+
+    @Value("${warmup.exit:false}")
+    private boolean exit;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp(ApplicationReadyEvent event) {
+        Gauge.builder("application.first-request.time", firstRequestTime, StartupWarmUp::seconds)
+                .description("Time from JVM start until the first API request completed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("application.first-request.duration", firstRequestDuration, StartupWarmUp::seconds)
+                .description("Time taken to serve the first API request")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        if (enabled) {
+            long started = System.nanoTime();
+            step("connection pools", this::openConnections);
+            step("repositories", this::readRepositories);
+            for (int i = 0; i < iterations; i++) {
+                step("read paths", this::callReadPaths);
+            }
+            log.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+        if (exit) {
+            ConfigurableApplicationContext context = event.getApplicationContext();
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (!event.getRequestUrl().startsWith("/api/") || !firstRequestSeen.compareAndSet(false, true)) {
+            return;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        firstRequestTime.set(TimeUnit.MILLISECONDS.toNanos(uptime));
+        firstRequestDuration.set(TimeUnit.MILLISECONDS.toNanos(event.getProcessingTimeMillis()));
+        log.info("First API request {} {} served in {} ms, {} ms after JVM start", event.getMethod(),
+                event.getRequestUrl(), event.getProcessingTimeMillis(), uptime);
+    }
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    private void step(String name, Step step) {
+        long started = System.nanoTime();
+        try {
+            step.run();
+            log.debug("Warmed up {} in {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (Exception e) {
+            log.warn("Warm-up of {} failed: {}", name, e.toString());
+        }
+    }
+
+    // Hikari fills the pool in the background; holding several connections at once makes it open them now
+    private void openConnections() throws Exception {
+        List<DataSource> pools = new ArrayList<>(List.of(readReplicaRouter.primaryDataSource()));
+        if (readReplicaRouter.hasReplica()) {
+            pools.add(readReplicaRouter.readDataSource());
+        }
+        for (DataSource pool : pools) {
+            List<Connection> open = new ArrayList<>();
+            try {
+                for (int i = 0; i < connections; i++) {
+                    Connection connection = pool.getConnection();
+                    open.add(connection);
+                    connection.isValid(1);
+                }
+            } finally {
+                for (Connection connection : open) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private void readRepositories() {
+        for (JpaRepository<?, ?> repository : repositories) {
+            repository.findAll(PageRequest.of(0, pageSize)).getContent();
+        }
+    }
+
+    private void callReadPaths() throws Exception {
+        serialize(productService.getAllProducts());
+        serialize(storeService.getAllStores(false));
+        serialize(storeService.getAllStores(true));
+        serialize(userService.getAllUsers());
+        serialize(userService.getDeliveryUsers());
+
+        PageRequest recent = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "id"));
+        for (VisitModel visit : visitRepository.findAll(recent)) {
+            serialize(visitService.getVisitByUuid(visit.getUuid()));
+        }
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(30);
+        serialize(reportService.getDailySales(from, to));
+        serialize(reportService.getSalesByStore(from, to));
+        serialize(reportService.getSalesByDriver(from, to));
+
+        // Logins spend most of their time in BCrypt, which runs interpreted until the JIT gets to it
+        passwordEncoder.matches("warm-up", passwordEncoder.encode("warm-up"));
+
+        // Fills the route cache the drivers hit when their shift starts
+        int routes = 0;
+        for (UserModel user : userRepository.findAll(PageRequest.of(0, Math.max(pageSize, drivers)))) {
+            if (user.getRole() == Role.USER && routes++ < drivers) {
+                UUID uuid = user.getUuid();
+                objectMapper.writeValueAsBytes(driverRouteService.getRoute(uuid, true));
+                objectMapper.writeValueAsBytes(driverRouteService.getRoute(uuid, false));
+            }
+            String token = jwtService.generateToken(user, user.getUuid());
+            jwtService.isTokenValid(token, user);
+        }
+    }
+
+    private void serialize(ResponseEntity<Object> response) throws Exception {
+        objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    private static double seconds(AtomicLong nanos) {
+        long value = nanos.get();
+        return value < 0 ? Double.NaN : value / 1e9;
+    }
+}
@@ -0,0 +1,338 @@
+package mtzg.carlos.server.config;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mtzg.carlos.server.modules.reports.SalesRollupService;
+import mtzg.carlos.server.utils.TextUtils;
+import mtzg.carlos.server.utils.UuidUtils;
+
+/**
+ * Fills the database with a production-sized data set for performance work:
+ * by default 20,000 stores, 10,000 products, 500 drivers covering 40 stores
+ * each, 200 products per store and 2,000,000 visits over the last year with
+ * one to nine order lines each (about 10 million orders). Every count is a
+ * {@code datagen.*} property.
+ *
+ * Rows are written with plain JDBC as multi-row INSERTs of
+ * {@code datagen.batch-rows} rows, split into chunks that
+ * {@code datagen.threads} workers load in parallel, each statement committing
+ * on its own. Stores, products, drivers and visits get explicit ids above the
+ * current maximum so that the rows referencing them can be built without a
+ * round trip. The daily sales rollups are rebuilt at the end and Hibernate's
+ * second-level cache is cleared.
+ *
+ * Runs once: nothing is generated when the first generated driver exists.
+ * With {@code datagen.exit} the application stops afterwards, so it can be
+ * used as a one-shot loader:
+ *
+ * <pre>
+ * java -jar server.jar --spring.profiles.active=datagen --datagen.exit=true
+ * </pre>
+ */
+@Slf4j
+@Configuration
+@Profile("datagen")
+@RequiredArgsConstructor
+public class SyntheticDataConfig {
+
+    public static final String DRIVER_EMAIL = "driver%d@datagen.local";
+
+    private static final int CHUNK_ROWS = 20_000;
+    private static final double CENTER_LAT = 18.92;
+    private static final double CENTER_LNG = -99.23;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final SalesRollupService salesRollupService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${datagen.seed:7}")
+    private long seed;
+
+    @Value("${datagen.stores:20000}")
+    private int storeCount;
+
+    @Value("${datagen.products:10000}")
+    private int productCount;
+
+    @Value("${datagen.drivers:500}")
+    private int driverCount;
+
+    @Value("${datagen.stores-per-driver:40}")
+    private int storesPerDriver;
+
+    @Value("${datagen.products-per-store:200}")
+    private int productsPerStore;
+
+    @Value("${datagen.visits:2000000}")
+    private int visitCount;
+
+    @Value("${datagen.max-lines-per-visit:9}")
+    private int maxLines;
+
+    @Value("${datagen.days:365}")
+    private int days;
+
+    @Value("${datagen.batch-rows:1000}")
+    private int batchRows;
+
+    @Value("${datagen.threads:4}")
+    private int threads;
+
+    @Value("${datagen.password:@Driver1234}")
+    private String driverPassword;
+
+    @Value("${datagen.exit:false}")
+    private boolean exit;
+
+    @Bean
+    CommandLineRunner generateSyntheticData(ConfigurableApplicationContext context) {
+        return args -> {
+            Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE email = ?", Integer.class,
+                    String.format(DRIVER_EMAIL, 0));
+            if (existing != null && existing > 0) {
+                log.info("Synthetic data already present, skipping generation");
+            } else {
+                generate();
+            }
+            if (exit) {
+                System.exit(SpringApplication.exit(context));
+            }
+        };
+    }
+
+    private void generate() throws Exception {
+        long started = System.nanoTime();
+        long storeBase = nextId("stores");
+        long productBase = nextId("products");
+        long userBase = nextId("user");
+        long visitBase = nextId("visits");
+        int routeLength = Math.min(storesPerDriver, storeCount);
+        int assortment = Math.min(productsPerStore, productCount);
+
+        double[] prices = new double[productCount];
+        SplittableRandom priceRandom = new SplittableRandom(seed);
+        for (int i = 0; i < productCount; i++) {
+            prices[i] = 5 + priceRandom.nextInt(0, 19_500) / 100.0;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            phase(pool, "stores", storeCount, (random, from, to) -> {
+                try (Rows rows = new Rows("stores", "id, uuid, name, normalized_name, address, latitude, longitude")) {
+                    for (int i = from; i < to; i++) {
+                        // Each route is a cluster of neighbouring stores
+                        SplittableRandom cluster = new SplittableRandom(seed + i / routeLength);
+                        double lat = CENTER_LAT + (cluster.nextDouble() - 0.5) * 0.4;
+                        double lng = CENTER_LNG + (cluster.nextDouble() - 0.5) * 0.4;
+                        String name = String.format("Tienda DG-%06d", i);
+                        rows.add(storeBase + i, uuid(), name, TextUtils.normalizeName(name),
+                                String.format("Calle %d #%d", random.nextInt(1, 300), random.nextInt(1, 2000)),
+                                lat + (random.nextDouble() - 0.5) * 0.01, lng + (random.nextDouble() - 0.5) * 0.01);
+                    }
+                }
+            });
+            phase(pool, "products", productCount, (random, from, to) -> {
+                try (Rows rows = new Rows("products", "id, uuid, name, normalized_name, description, base_price")) {
+                    for (int i = from; i < to; i++) {
+                        String name = String.format("Producto DG-%06d", i);
+                        rows.add(productBase + i, uuid(), name, TextUtils.normalizeName(name),
+                                "Producto sintético " + i, prices[i]);
+                    }
+                }
+            });
+            phase(pool, "store assortments", storeCount, (random, from, to) -> {
+                try (Rows rows = new Rows("store_products", "store_id, product_id")) {
+                    for (int s = from; s < to; s++) {
+                        for (int k = 0; k < assortment; k++) {
+                            rows.add(storeBase + s, productBase + assortmentProduct(s, k));
+                        }
+                    }
+                }
+            });
+
+            String password = passwordEncoder.encode(driverPassword);
+            phase(pool, "drivers", driverCount, (random, from, to) -> {
+                try (Rows rows = new Rows("user", "id, uuid, name, email, password, role")) {
+                    for (int d = from; d < to; d++) {
+                        rows.add(userBase + d, uuid(), String.format("Repartidor DG-%04d", d),
+                                String.format(DRIVER_EMAIL, d), password, "USER");
+                    }
+                }
+            });
+            phase(pool, "driver routes", driverCount, (random, from, to) -> {
+                try (Rows rows = new Rows("routes", "user_id, store_id")) {
+                    for (int d = from; d < to; d++) {
+                        for (int k = 0; k < routeLength; k++) {
+                            rows.add(userBase + d, storeBase + routeStore(d, k));
+                        }
+                    }
+                }
+            });
+
+            LocalDate firstDay = LocalDate.now().minusDays(days);
+            phase(pool, "visits and orders", visitCount, (random, from, to) -> {
+                try (Rows visits = new Rows("visits", "id, uuid, date, photo, validation, store_id, user_id");
+                        Rows orders = new Rows("order_details",
+                                "uuid, quantity, unit_price, total, product_id, visit_id", visits)) {
+                    for (int v = from; v < to; v++) {
+                        int driver = random.nextInt(driverCount);
+                        int store = routeStore(driver, random.nextInt(routeLength));
+                        long visitId = visitBase + v;
+                        // Dates grow with the id, as they do for visits registered day by day
+                        visits.add(visitId, uuid(), firstDay.plusDays((long) v * days / visitCount),
+                                "uploads/store_Tienda_DG-" + store + "_" + v + ".jpg", random.nextInt(20) != 0,
+                                storeBase + store, userBase + driver);
+
+                        int lines = Math.min(random.nextInt(1, maxLines + 1), assortment);
+                        int first = random.nextInt(assortment);
+                        for (int line = 0; line < lines; line++) {
+                            int product = assortmentProduct(store, (first + line) % assortment);
+                            int quantity = random.nextInt(1, 13);
+                            orders.add(uuid(), quantity, prices[product], quantity * prices[product],
+                                    productBase + product, visitId);
+                        }
+                    }
+                }
+            });
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long rollupStarted = System.nanoTime();
+        salesRollupService.rebuild();
+        log.info("Rebuilt sales rollups in {} s", (System.nanoTime() - rollupStarted) / 1_000_000_000);
+        // Rows written over JDBC bypass Hibernate, so cached entities and queries go too
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        log.info("Synthetic data generated in {} s", (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private interface Chunk {
+        void load(SplittableRandom random, int from, int to) throws Exception;
+    }
+
+    /**
+     * Splits {@code count} items into chunks and loads them on the pool. Each
+     * chunk draws from its own generator seeded by its position, so the data
+     * does not depend on how chunks are scheduled.
+     */
+    private void phase(ExecutorService pool, String name, int count, Chunk chunk) throws Exception {
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < count; from += CHUNK_ROWS) {
+            int start = from;
+            int end = Math.min(count, from + CHUNK_ROWS);
+            futures.add(pool.submit(() -> {
+                chunk.load(new SplittableRandom(seed * 31 + name.hashCode() + start), start, end);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Generated {} {} in {} s ({} per second)", count, name, Math.round(seconds),
+                Math.round(count / Math.max(seconds, 0.001)));
+    }
+
+    private int routeStore(int driver, int position) {
+        return (driver * storesPerDriver + position) % storeCount;
+    }
+
+    private int assortmentProduct(int store, int position) {
+        int offset = (int) Math.floorMod(store * 2_654_435_761L + seed, (long) productCount);
+        return (offset + position) % productCount;
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private static byte[] uuid() {
+        UUID uuid = UuidUtils.v7();
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Buffers rows and writes them as INSERTs of up to {@code batchRows} rows
+     * each. Rows that reference another buffer's rows name it as
+     * {@code parent}, which is written out first.
+     */
+    private final class Rows implements AutoCloseable {
+        private final String table;
+        private final String columns;
+        private final int width;
+        private final Rows parent;
+        private final List<Object> values = new ArrayList<>();
+        private String fullBatchSql;
+
+        Rows(String table, String columns) {
+            this(table, columns, null);
+        }
+
+        Rows(String table, String columns, Rows parent) {
+            this.table = table;
+            this.columns = columns;
+            this.width = columns.split(",").length;
+            this.parent = parent;
+        }
+
+        void add(Object... row) {
+            Collections.addAll(values, row);
+            if (values.size() == batchRows * width) {
+                if (fullBatchSql == null) {
+                    fullBatchSql = sql(batchRows);
+                }
+                flush(fullBatchSql);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!values.isEmpty()) {
+                flush(sql(values.size() / width));
+            }
+        }
+
+        private void flush(String sql) {
+            if (parent != null) {
+                parent.close();
+            }
+            jdbcTemplate.update(sql, values.toArray());
+            values.clear();
+        }
+
+        private String sql(int rows) {
+            String row = "(" + String.join(", ", Collections.nCopies(width, "?")) + ")";
+            return "INSERT INTO " + table + " (" + columns + ") VALUES "
+                    + String.join(", ", Collections.nCopies(rows, row));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package mtzg.carlos.server.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Spans go to an OTLP collector when {@code management.otlp.tracing.endpoint}
+ * is set (Spring Boot wires that exporter), and/or to a local file when
+ * {@code tracing.export.file} is set. The file gets one OTLP/JSON
+ * {@code ResourceSpans} object per line.
+ */
+@Configuration
+public class TracingConfig {
+
+    // java.util.logging only keeps weak references to loggers, so the configured one is held here
+    private Logger spanFileLogger;
+
+    // The tracer provider shuts its exporters down itself
+    @Bean(destroyMethod = "")
+    @ConditionalOnExpression("!'${tracing.export.file:}'.isBlank()")
+    public SpanExporter fileSpanExporter(@Value("${tracing.export.file}") String file) throws IOException {
+        Path path = Path.of(file).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        FileHandler handler = new FileHandler(path.toString(), true);
+        // Spans are logged at INFO; the exporter's own warnings stay out of the file
+        handler.setFilter(logRecord -> logRecord.getLevel() == Level.INFO);
+        handler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord logRecord) {
+                return logRecord.getMessage() + System.lineSeparator();
+            }
+        });
+        spanFileLogger = Logger.getLogger(OtlpJsonLoggingSpanExporter.class.getName());
+        spanFileLogger.setUseParentHandlers(false);
+        spanFileLogger.setLevel(Level.INFO);
+        spanFileLogger.addHandler(handler);
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,75 @@
+package mtzg.carlos.server.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import mtzg.carlos.server.utils.TextUtils;
+
+/**
+ * Fills normalized_name for products and stores created before V7, so V12 can
+ * make the column NOT NULL. It is a Java migration because the normalization
+ * (accent folding in particular) is {@link TextUtils#normalizeName}, which SQL
+ * can't reproduce. A name that collides with an earlier row's after
+ * normalization gets a " (2)", " (3)"... suffix, and the rename is logged.
+ *
+ * Registered as a bean, which Spring Boot hands to Flyway along with the SQL
+ * migrations in db/migration.
+ */
+@Slf4j
+@Component
+public class V11__Backfill_normalized_names extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        backfill(connection, "products", "product");
+        backfill(connection, "stores", "store");
+    }
+
+    private static void backfill(Connection connection, String table, String label) throws SQLException {
+        Set<String> taken = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery(
+                        "SELECT normalized_name FROM " + table + " WHERE normalized_name IS NOT NULL")) {
+            while (rows.next()) {
+                taken.add(rows.getString(1));
+            }
+        }
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery(
+                        "SELECT id, name FROM " + table + " WHERE normalized_name IS NULL ORDER BY id");
+                PreparedStatement update = connection.prepareStatement(
+                        "UPDATE " + table + " SET name = ?, normalized_name = ? WHERE id = ?")) {
+            while (rows.next()) {
+                long id = rows.getLong(1);
+                String original = rows.getString(2);
+                String name = original;
+                String normalized = TextUtils.normalizeName(name);
+                for (int suffix = 2; taken.contains(normalized); suffix++) {
+                    name = original + " (" + suffix + ")";
+                    normalized = TextUtils.normalizeName(name);
+                }
+                taken.add(normalized);
+                if (!name.equals(original)) {
+                    log.warn("Renamed {} {} from '{}' to '{}': its name collides with another after normalization",
+                            label, id, original, name);
+                }
+                update.setString(1, name);
+                update.setString(2, normalized);
+                update.setLong(3, id);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+}
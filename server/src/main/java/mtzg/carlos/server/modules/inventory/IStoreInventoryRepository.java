@@ -0,0 +1,33 @@
+package mtzg.carlos.server.modules.inventory;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IStoreInventoryRepository extends JpaRepository<StoreInventoryModel, Long> {
+
+    Optional<StoreInventoryModel> findByStoreIdAndProductId(Long storeId, Long productId);
+
+    @Query("SELECT COALESCE(MAX(v.id), 0) FROM VisitModel v WHERE v.store.id = :storeId")
+    long findLastVisitId(@Param("storeId") Long storeId);
+
+    @Modifying
+    @Query("UPDATE StoreInventoryModel i SET i.baselineQuantity = i.baselineQuantity + :quantity, i.updatedAt = :now "
+            + "WHERE i.storeId = :storeId AND i.productId = :productId")
+    int addToBaseline(@Param("storeId") Long storeId, @Param("productId") Long productId,
+            @Param("quantity") long quantity, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM StoreInventoryModel i WHERE i.storeId = :storeId")
+    int deleteByStoreId(@Param("storeId") Long storeId);
+
+    @Modifying
+    @Query("DELETE FROM StoreInventoryModel i WHERE i.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,46 @@
+package mtzg.carlos.server.modules.inventory;
+
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.modules.inventory.dto.InventoryCountDto;
+import mtzg.carlos.server.modules.inventory.dto.InventoryRestockDto;
+
+@RestController
+@RequestMapping("/api/v1/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @GetMapping("/stores/{storeUuid}")
+    public ResponseEntity<Object> getStoreInventory(@PathVariable UUID storeUuid) {
+        return inventoryService.getStoreInventory(storeUuid);
+    }
+
+    @GetMapping("/low-stock")
+    public ResponseEntity<Object> getLowStock(@RequestParam(required = false) UUID storeUuid) {
+        return inventoryService.getLowStock(storeUuid);
+    }
+
+    @PutMapping("")
+    public ResponseEntity<Object> countStock(@RequestBody @Valid InventoryCountDto dto) {
+        return inventoryService.countStock(dto);
+    }
+
+    @PostMapping("/restock")
+    public ResponseEntity<Object> restock(@RequestBody @Valid InventoryRestockDto dto) {
+        return inventoryService.restock(dto);
+    }
+}
@@ -0,0 +1,252 @@
+package mtzg.carlos.server.modules.inventory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory stock levels. Visits adjust a {@link LongAdder} per store and
+ * product after they commit, so concurrent drivers never contend on a row
+ * lock. The counters are only this node's view: a level is always derived
+ * from committed data (the counted baseline minus the orders of every later
+ * visit), changed levels are re-read in batches and all of them are re-read
+ * periodically, which also brings in visits, counts and restocks handled by
+ * other nodes. The derived value is what gets written to the
+ * {@code quantity} column, so nodes never overwrite each other's stock with
+ * their own running totals. Only levels that differ from the column are
+ * written, and the periodic re-read only writes on the node holding the
+ * {@code inventory.reload} lease, so the other nodes just refresh their view.
+ */
+@Slf4j
+@Component
+public class InventoryCounters {
+
+    private static final String LEVELS = """
+            SELECT i.store_id, i.product_id, i.reorder_level, i.quantity AS stored_quantity,
+                   i.baseline_quantity - COALESCE((
+                       SELECT SUM(o.quantity)
+                       FROM order_details o
+                       JOIN visits v ON v.id = o.visit_id
+                       WHERE v.store_id = i.store_id
+                         AND o.product_id = i.product_id
+                         AND v.id > i.baseline_visit_id), 0) AS quantity
+            FROM store_inventory i
+            """;
+    private static final int REFRESH_BATCH = 500;
+    private static final String RELOAD_LEASE = "inventory.reload";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    // Long enough to survive a slow reload, short enough for another node to take over soon after a crash
+    private final long leaseSeconds;
+
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private static final class Stock {
+        // Every adjustment made on this node; never reset, so a concurrent add can't be lost
+        final LongAdder applied = new LongAdder();
+        volatile View view;
+    }
+
+    // Level read from the database while this node's adjustments added up to appliedAtRead
+    private record View(long quantity, long appliedAtRead, int reorderLevel) {
+    }
+
+    public record Level(Long storeId, Long productId, long quantity, int reorderLevel) {
+
+        public boolean isLow() {
+            return quantity <= reorderLevel;
+        }
+    }
+
+    public InventoryCounters(NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${inventory.reload-interval-ms:60000}") long reloadIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseSeconds = 3 * Math.max(1, reloadIntervalMs / 1000);
+    }
+
+    // Runs before the web server accepts requests
+    @PostConstruct
+    public void load() {
+        reload();
+    }
+
+    public void add(Long storeId, Long productId, long delta) {
+        adjust(key(storeId, productId), delta);
+    }
+
+    /**
+     * Applies the orders of a visit with the given sign. Whether the visit
+     * comes after a product's last count is settled when the level is next
+     * read from the database, so until then the view may be off by a visit
+     * that committed just before a count.
+     */
+    public void applyVisit(Long storeId, Map<Long, Long> quantities, int sign) {
+        quantities.forEach((productId, quantity) -> adjust(key(storeId, productId), sign * quantity));
+    }
+
+    /**
+     * Re-reads a level right away, e.g. after a count. Adjustments made before
+     * the read are already part of it and are folded in instead of lost.
+     */
+    public synchronized void refresh(Long storeId, Long productId) {
+        long key = key(storeId, productId);
+        stocks.computeIfAbsent(key, k -> new Stock());
+        refresh(List.of(key));
+    }
+
+    public void removeStore(Long storeId) {
+        stocks.keySet().removeIf(key -> (key >>> 32) == storeId);
+    }
+
+    public void removeProduct(Long productId) {
+        stocks.keySet().removeIf(key -> (key & 0xffffffffL) == productId);
+    }
+
+    public List<Level> levels(Long storeId, boolean lowOnly) {
+        List<Level> levels = new ArrayList<>();
+        stocks.forEach((key, stock) -> {
+            Long keyStoreId = key >>> 32;
+            View view = stock.view;
+            if (view == null || (storeId != null && !storeId.equals(keyStoreId))) {
+                return;
+            }
+            Level level = new Level(keyStoreId, key & 0xffffffffL,
+                    view.quantity() + stock.applied.sum() - view.appliedAtRead(), view.reorderLevel());
+            if (!lowOnly || level.isLow()) {
+                levels.add(level);
+            }
+        });
+        return levels;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:5000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> keys = new ArrayList<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext();) {
+            keys.add(it.next());
+            it.remove();
+        }
+        try {
+            for (int from = 0; from < keys.size(); from += REFRESH_BATCH) {
+                refresh(keys.subList(from, Math.min(from + REFRESH_BATCH, keys.size())));
+            }
+        } catch (Exception e) {
+            dirty.addAll(keys);
+            log.warn("Inventory flush of {} levels failed, will retry", keys.size(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reload-interval-ms:60000}", initialDelayString = "${inventory.reload-interval-ms:60000}")
+    public synchronized void reload() {
+        Map<Long, Long> appliedAtRead = new HashMap<>();
+        stocks.forEach((key, stock) -> appliedAtRead.put(key, stock.applied.sum()));
+        Set<Long> found = new HashSet<>();
+        List<MapSqlParameterSource> rows = new ArrayList<>();
+        jdbcTemplate.query(LEVELS, row -> {
+            found.add(update(row.getLong("store_id"), row.getLong("product_id"), row.getLong("quantity"),
+                    row.getLong("stored_quantity"), row.getInt("reorder_level"), appliedAtRead, rows));
+        });
+        stocks.keySet().retainAll(found);
+        if (!rows.isEmpty() && holdsReloadLease()) {
+            write(rows);
+        }
+    }
+
+    /**
+     * Takes or renews the lease on the periodic write. Expiry is on the
+     * database clock, so nodes with skewed clocks still agree on it.
+     */
+    private boolean holdsReloadLease() {
+        return jdbcTemplate.update("UPDATE scheduler_leases "
+                + "SET owner = :owner, expires_at = TIMESTAMPADD(SECOND, :seconds, CURRENT_TIMESTAMP(6)) "
+                + "WHERE name = :name AND (owner = :owner OR expires_at < CURRENT_TIMESTAMP(6))",
+                new MapSqlParameterSource()
+                        .addValue("owner", nodeId)
+                        .addValue("seconds", leaseSeconds)
+                        .addValue("name", RELOAD_LEASE)) == 1;
+    }
+
+    private synchronized void refresh(List<Long> keys) {
+        Map<Long, Long> appliedAtRead = new HashMap<>();
+        List<Object[]> pairs = new ArrayList<>();
+        for (Long key : keys) {
+            Stock stock = stocks.get(key);
+            if (stock != null) {
+                appliedAtRead.put(key, stock.applied.sum());
+                pairs.add(new Object[] { key >>> 32, key & 0xffffffffL });
+            }
+        }
+        if (pairs.isEmpty()) {
+            return;
+        }
+        List<MapSqlParameterSource> rows = new ArrayList<>();
+        jdbcTemplate.query(LEVELS + " WHERE (i.store_id, i.product_id) IN (:pairs)",
+                new MapSqlParameterSource("pairs", pairs),
+                row -> {
+                    update(row.getLong("store_id"), row.getLong("product_id"), row.getLong("quantity"),
+                            row.getLong("stored_quantity"), row.getInt("reorder_level"), appliedAtRead, rows);
+                });
+        write(rows);
+    }
+
+    private long update(long storeId, long productId, long quantity, long storedQuantity, int reorderLevel,
+            Map<Long, Long> appliedAtRead, List<MapSqlParameterSource> rows) {
+        long key = key(storeId, productId);
+        stocks.computeIfAbsent(key, k -> new Stock()).view = new View(quantity, appliedAtRead.getOrDefault(key, 0L),
+                reorderLevel);
+        if (quantity == storedQuantity) {
+            return key;
+        }
+        rows.add(new MapSqlParameterSource()
+                .addValue("storeId", storeId)
+                .addValue("productId", productId)
+                .addValue("quantity", quantity));
+        return key;
+    }
+
+    // The column is a snapshot of the derived level, for reporting outside the application
+    private void write(List<MapSqlParameterSource> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        rows.forEach(row -> row.addValue("now", now));
+        jdbcTemplate.batchUpdate("UPDATE store_inventory SET quantity = :quantity, updated_at = :now "
+                + "WHERE store_id = :storeId AND product_id = :productId",
+                rows.toArray(MapSqlParameterSource[]::new));
+    }
+
+    private void adjust(long key, long delta) {
+        Stock stock = stocks.get(key);
+        if (stock != null) {
+            stock.applied.add(delta);
+            dirty.add(key);
+        }
+    }
+
+    private static long key(Long storeId, Long productId) {
+        return (storeId << 32) | (productId & 0xffffffffL);
+    }
+}
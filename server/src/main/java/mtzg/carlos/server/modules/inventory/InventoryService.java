@@ -0,0 +1,172 @@
+package mtzg.carlos.server.modules.inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.modules.inventory.dto.InventoryCountDto;
+import mtzg.carlos.server.modules.inventory.dto.InventoryLevelDto;
+import mtzg.carlos.server.modules.inventory.dto.InventoryRestockDto;
+import mtzg.carlos.server.modules.products.IProductRepository;
+import mtzg.carlos.server.modules.products.ProductModel;
+import mtzg.carlos.server.modules.stores.IStoreRepository;
+import mtzg.carlos.server.modules.stores.StoreModel;
+import mtzg.carlos.server.utils.TransactionUtils;
+import mtzg.carlos.server.utils.Utilities;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryService {
+
+    private final IStoreInventoryRepository inventoryRepository;
+    private final IStoreRepository storeRepository;
+    private final IProductRepository productRepository;
+    private final InventoryCounters counters;
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getStoreInventory(UUID storeUuid) {
+        try {
+            Optional<StoreModel> storeOpt = storeRepository.findByUuid(storeUuid);
+            if (storeOpt.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Store not found");
+            }
+            return Utilities.generateResponse(HttpStatus.OK, "Inventory retrieved successfully",
+                    toDtos(counters.levels(storeOpt.get().getId(), false)));
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while fetching the inventory.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getLowStock(UUID storeUuid) {
+        try {
+            Long storeId = null;
+            if (storeUuid != null) {
+                Optional<StoreModel> storeOpt = storeRepository.findByUuid(storeUuid);
+                if (storeOpt.isEmpty()) {
+                    return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Store not found");
+                }
+                storeId = storeOpt.get().getId();
+            }
+            return Utilities.generateResponse(HttpStatus.OK, "Low stock retrieved successfully",
+                    toDtos(counters.levels(storeId, true)));
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while fetching low stock.");
+        }
+    }
+
+    // Read committed so the baseline is read after the store lock, not from a snapshot taken before it
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public ResponseEntity<Object> countStock(InventoryCountDto dto) {
+        try {
+            Optional<StoreModel> storeOpt = storeRepository.findByUuid(dto.getStoreUuid());
+            if (storeOpt.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Store not found");
+            }
+            StoreModel store = storeOpt.get();
+            Optional<ProductModel> productOpt = findAssigned(store, dto.getProductUuid());
+            if (productOpt.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Product is not assigned to this store");
+            }
+            ProductModel product = productOpt.get();
+
+            StoreInventoryModel inventory = inventoryRepository
+                    .findByStoreIdAndProductId(store.getId(), product.getId())
+                    .orElseGet(() -> StoreInventoryModel.builder()
+                            .storeId(store.getId())
+                            .productId(product.getId())
+                            .build());
+            // The counted quantity reflects every visit to the store committed so far
+            storeRepository.lockForInventoryCount(store.getId());
+            long baselineVisitId = inventoryRepository.findLastVisitId(store.getId());
+            inventory.setBaselineQuantity(dto.getQuantity());
+            inventory.setBaselineVisitId(baselineVisitId);
+            inventory.setQuantity(dto.getQuantity());
+            if (dto.getReorderLevel() != null) {
+                inventory.setReorderLevel(dto.getReorderLevel());
+            }
+            inventory.setUpdatedAt(LocalDateTime.now());
+            inventoryRepository.save(inventory);
+
+            TransactionUtils.afterCommit(() -> counters.refresh(store.getId(), product.getId()));
+            return Utilities.simpleResponse(HttpStatus.OK, "Stock updated successfully");
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while updating the stock.");
+        }
+    }
+
+    @Transactional
+    public ResponseEntity<Object> restock(InventoryRestockDto dto) {
+        try {
+            Optional<StoreModel> storeOpt = storeRepository.findByUuid(dto.getStoreUuid());
+            if (storeOpt.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Store not found");
+            }
+            Optional<ProductModel> productOpt = productRepository.findByUuid(dto.getProductUuid());
+            if (productOpt.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Product not found");
+            }
+            Long storeId = storeOpt.get().getId();
+            Long productId = productOpt.get().getId();
+
+            int updated = inventoryRepository.addToBaseline(storeId, productId, dto.getQuantity(),
+                    LocalDateTime.now());
+            if (updated == 0) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND,
+                        "Stock is not tracked for this product at this store; count it first");
+            }
+            TransactionUtils.afterCommit(() -> counters.add(storeId, productId, dto.getQuantity()));
+            return Utilities.simpleResponse(HttpStatus.OK, "Stock replenished successfully");
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while replenishing the stock.");
+        }
+    }
+
+    private Optional<ProductModel> findAssigned(StoreModel store, UUID productUuid) {
+        if (store.getProducts() == null) {
+            return Optional.empty();
+        }
+        return store.getProducts().stream()
+                .filter(product -> product.getUuid().equals(productUuid))
+                .findFirst();
+    }
+
+    private List<InventoryLevelDto> toDtos(List<InventoryCounters.Level> levels) {
+        if (levels.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, StoreModel> stores = storeRepository
+                .findAllById(levels.stream().map(InventoryCounters.Level::storeId).distinct().toList()).stream()
+                .collect(Collectors.toMap(StoreModel::getId, Function.identity()));
+        Map<Long, ProductModel> products = productRepository
+                .findAllById(levels.stream().map(InventoryCounters.Level::productId).distinct().toList()).stream()
+                .collect(Collectors.toMap(ProductModel::getId, Function.identity()));
+        return levels.stream()
+                .filter(level -> stores.containsKey(level.storeId()) && products.containsKey(level.productId()))
+                .map(level -> InventoryLevelDto.builder()
+                        .storeUuid(stores.get(level.storeId()).getUuid())
+                        .storeName(stores.get(level.storeId()).getName())
+                        .productUuid(products.get(level.productId()).getUuid())
+                        .productName(products.get(level.productId()).getName())
+                        .quantity(level.quantity())
+                        .reorderLevel(level.reorderLevel())
+                        .lowStock(level.isLow())
+                        .build())
+                .toList();
+    }
+}
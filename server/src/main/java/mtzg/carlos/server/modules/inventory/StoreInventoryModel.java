@@ -0,0 +1,61 @@
+package mtzg.carlos.server.modules.inventory;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Stock of a product at a store. {@code baselineQuantity} is the last physical
+ * count plus restocks since, and every order of a visit newer than
+ * {@code baselineVisitId} is subtracted from it; that makes the level
+ * recomputable from committed data. Counts and visits lock the store row, so
+ * the baseline splits the store's visits by commit order, not just by id.
+ * {@code quantity} is the periodically written snapshot of that level.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "store_inventory", uniqueConstraints = @UniqueConstraint(name = "uk_store_inventory", columnNames = {
+        "store_id", "product_id" }), indexes = @Index(name = "idx_store_inventory_product", columnList = "product_id"))
+public class StoreInventoryModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "baseline_quantity", nullable = false)
+    private long baselineQuantity;
+
+    @Column(name = "baseline_visit_id", nullable = false)
+    private long baselineVisitId;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "reorder_level", nullable = false)
+    private int reorderLevel;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
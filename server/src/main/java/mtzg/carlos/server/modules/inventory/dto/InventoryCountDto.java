@@ -0,0 +1,33 @@
+package mtzg.carlos.server.modules.inventory.dto;
+
+import java.util.UUID;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryCountDto {
+
+    @NotNull(message = "Store UUID cannot be null")
+    private UUID storeUuid;
+
+    @NotNull(message = "Product UUID cannot be null")
+    private UUID productUuid;
+
+    @NotNull(message = "Quantity cannot be null")
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private Long quantity;
+
+    // Keeps the current reorder level when omitted
+    @Min(value = 0, message = "Reorder level cannot be negative")
+    private Integer reorderLevel;
+}
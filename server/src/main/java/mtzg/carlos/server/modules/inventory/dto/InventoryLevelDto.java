@@ -0,0 +1,25 @@
+package mtzg.carlos.server.modules.inventory.dto;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryLevelDto {
+
+    private UUID storeUuid;
+    private String storeName;
+    private UUID productUuid;
+    private String productName;
+    private long quantity;
+    private int reorderLevel;
+    private boolean lowStock;
+}
@@ -0,0 +1,29 @@
+package mtzg.carlos.server.modules.inventory.dto;
+
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryRestockDto {
+
+    @NotNull(message = "Store UUID cannot be null")
+    private UUID storeUuid;
+
+    @NotNull(message = "Product UUID cannot be null")
+    private UUID productUuid;
+
+    @NotNull(message = "Quantity cannot be null")
+    @Positive(message = "Quantity must be greater than zero")
+    private Long quantity;
+}
@@ -0,0 +1,32 @@
+package mtzg.carlos.server.modules.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IOutboxEventRepository extends JpaRepository<OutboxEventModel, Long> {
+
+    // Expired PROCESSING rows are included so events claimed by a crashed node are redelivered
+    @Query(value = "SELECT * FROM outbox_events WHERE status IN ('PENDING', 'PROCESSING') AND available_at <= :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEventModel> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEventModel e SET e.status = :status, e.attempts = :attempts, e.availableAt = :availableAt, "
+            + "e.lastError = :lastError WHERE e.id = :id")
+    int reschedule(@Param("id") Long id, @Param("status") OutboxStatus status, @Param("attempts") int attempts,
+            @Param("availableAt") LocalDateTime availableAt, @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEventModel e WHERE e.id = :id")
+    int deleteProcessed(@Param("id") Long id);
+}
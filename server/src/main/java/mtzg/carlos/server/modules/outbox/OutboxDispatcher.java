@@ -0,0 +1,130 @@
+package mtzg.carlos.server.modules.outbox;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbox table in batches. Each batch is claimed in a short
+ * transaction (rows are leased with {@code SKIP LOCKED} so several nodes can
+ * drain concurrently), delivered to subscribers on a fixed worker pool, and then
+ * deleted or rescheduled one by one. The next batch is only claimed once the
+ * previous one finished, which bounds the work in flight.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final IOutboxEventRepository outboxEventRepository;
+    private final List<OutboxSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+
+    private record Claimed(Long id, OutboxEvent event) {
+    }
+
+    public OutboxDispatcher(IOutboxEventRepository outboxEventRepository, ObjectProvider<OutboxSubscriber> subscribers,
+            TransactionTemplate transactionTemplate,
+            @Value("${outbox.dispatcher.batch-size:100}") int batchSize,
+            @Value("${outbox.dispatcher.max-attempts:10}") int maxAttempts,
+            @Value("${outbox.dispatcher.lease-seconds:60}") long leaseSeconds,
+            @Value("${outbox.dispatcher.workers:4}") int workers) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.subscribers = subscribers.orderedStream().toList();
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+        this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatcher.poll-interval-ms:1000}")
+    public void drain() {
+        List<Claimed> batch;
+        do {
+            batch = claim();
+            dispatch(batch);
+        } while (batch.size() == batchSize && !Thread.currentThread().isInterrupted());
+    }
+
+    private List<Claimed> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEventModel> rows = outboxEventRepository.lockNextBatch(now, batchSize);
+            List<Claimed> claimed = new ArrayList<>(rows.size());
+            for (OutboxEventModel row : rows) {
+                row.setStatus(OutboxStatus.PROCESSING);
+                row.setAvailableAt(now.plusSeconds(leaseSeconds));
+                claimed.add(new Claimed(row.getId(), new OutboxEvent(row.getUuid(), row.getEventType(),
+                        row.getAggregateUuid(), row.getPayload(), row.getAttempts())));
+            }
+            return claimed;
+        });
+    }
+
+    private void dispatch(List<Claimed> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(batch.size());
+        for (Claimed claimed : batch) {
+            tasks.add(() -> {
+                deliver(claimed.id(), claimed.event());
+                return null;
+            });
+        }
+        try {
+            workers.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(Long id, OutboxEvent event) {
+        try {
+            for (OutboxSubscriber subscriber : subscribers) {
+                if (subscriber.supports(event.eventType())) {
+                    subscriber.handle(event);
+                }
+            }
+            outboxEventRepository.deleteProcessed(id);
+        } catch (Exception e) {
+            int attempts = event.attempts() + 1;
+            boolean exhausted = attempts >= maxAttempts;
+            long backoffSeconds = Math.min(1L << Math.min(attempts, 12), 3600);
+            log.warn("Outbox event {} ({}) failed on attempt {}{}", event.uuid(), event.eventType(), attempts,
+                    exhausted ? ", giving up" : "", e);
+            outboxEventRepository.reschedule(id, exhausted ? OutboxStatus.FAILED : OutboxStatus.PENDING, attempts,
+                    LocalDateTime.now().plusSeconds(backoffSeconds), truncate(e.toString()));
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
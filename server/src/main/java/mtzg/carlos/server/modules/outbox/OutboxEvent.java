@@ -0,0 +1,10 @@
+package mtzg.carlos.server.modules.outbox;
+
+import java.util.UUID;
+
+/**
+ * Immutable view of an outbox row handed to subscribers. {@code attempts}
+ * counts previous failed deliveries, so handlers can tell a retry apart.
+ */
+public record OutboxEvent(UUID uuid, String eventType, UUID aggregateUuid, String payload, int attempts) {
+}
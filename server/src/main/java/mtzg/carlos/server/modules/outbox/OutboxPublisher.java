@@ -0,0 +1,47 @@
+package mtzg.carlos.server.modules.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.utils.UuidUtils;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final IOutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stores an event in the caller's transaction; it becomes visible to the
+     * dispatcher only if that transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String eventType, UUID aggregateUuid, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize outbox payload for " + eventType, e);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.save(OutboxEventModel.builder()
+                .uuid(UuidUtils.v7())
+                .eventType(eventType)
+                .aggregateUuid(aggregateUuid)
+                .payload(json)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+    }
+}
@@ -0,0 +1,5 @@
+package mtzg.carlos.server.modules.outbox;
+
+public enum OutboxStatus {
+    PENDING, PROCESSING, FAILED
+}
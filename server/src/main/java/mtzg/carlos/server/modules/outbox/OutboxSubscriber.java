@@ -0,0 +1,13 @@
+package mtzg.carlos.server.modules.outbox;
+
+/**
+ * In-process consumer of outbox events. Delivery is at-least-once, so
+ * implementations must tolerate seeing the same event uuid more than once.
+ * Throwing schedules the event for another attempt.
+ */
+public interface OutboxSubscriber {
+
+    boolean supports(String eventType);
+
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,36 @@
+package mtzg.carlos.server.modules.products;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface IProductPriceRepository extends JpaRepository<ProductPriceModel, Long> {
+
+    List<ProductPriceModel> findByProductIdOrderByEffectiveFromAsc(Long productId);
+
+    List<ProductPriceModel> findByEffectiveFromAfter(LocalDateTime effectiveFrom);
+
+    @Modifying
+    @Query("DELETE FROM ProductPriceModel p WHERE p.productId = :productId")
+    void deleteByProductId(@Param("productId") Long productId);
+
+    // Gives products created before price history existed an open-ended initial price
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_prices"))
+    @Modifying
+    @Query(value = "INSERT INTO product_prices (product_id, price, effective_from) "
+            + "SELECT p.id, p.base_price, '1970-01-01 00:00:00' FROM products p "
+            + "WHERE NOT EXISTS (SELECT 1 FROM product_prices pp WHERE pp.product_id = p.id)", nativeQuery = true)
+    int seedMissing();
+}
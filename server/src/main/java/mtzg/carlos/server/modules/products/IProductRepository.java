@@ -1,15 +1,26 @@
 package mtzg.carlos.server.modules.products;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import mtzg.carlos.server.utils.NaturalIdRepository;
+
 @Repository
-public interface IProductRepository extends JpaRepository<ProductModel, Long> {
+public interface IProductRepository extends NaturalIdRepository<ProductModel, Long> {
+
+    // Resolved through the natural-id cache instead of a derived query
+    default Optional<ProductModel> findByUuid(UUID uuid) {
+        return findBySimpleNaturalId(uuid);
+    }
 
-    Optional<ProductModel> findByUuid(UUID uuid);
+    List<ProductModel> findByUuidIn(Collection<UUID> uuids);
 
-    Optional<ProductModel> findByNameIgnoreCase(String name);
+    // Returns [id, uuid, name, description, base price] rows for ProductSearchIndex
+    @Query("SELECT p.id, p.uuid, p.name, p.description, p.basePrice FROM ProductModel p")
+    List<Object[]> findAllSearchFields();
 }
@@ -1,7 +1,9 @@
 package mtzg.carlos.server.modules.products;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
@@ -29,6 +32,12 @@ public class ProductController {
         return productService.getAllProducts();
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<Object> searchProducts(@RequestParam("q") String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return productService.searchProducts(query, limit);
+    }
+
     @GetMapping("/{uuid}")
     public ResponseEntity<Object> findProductByUuid(@PathVariable("uuid") UUID uuid) {
         return productService.getProductByUuid(uuid);
@@ -50,6 +59,17 @@ public class ProductController {
         return productService.deleteProduct(uuid);
     }
 
+    @GetMapping("/{uuid}/prices")
+    public ResponseEntity<Object> findPriceHistory(@PathVariable("uuid") UUID uuid) {
+        return productService.getPriceHistory(uuid);
+    }
+
+    @GetMapping("/{uuid}/price")
+    public ResponseEntity<Object> findPriceAt(@PathVariable("uuid") UUID uuid,
+            @RequestParam(name = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return productService.getPriceAt(uuid, at);
+    }
+
     @GetMapping("/findByStore/{uuid}")
     public ResponseEntity<Object> findProductByStore(@PathVariable("uuid") UUID uuid){
         return productService.findProductByStore(uuid);
@@ -3,6 +3,11 @@ package mtzg.carlos.server.modules.products;
 import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -13,7 +18,10 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -21,40 +29,58 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import mtzg.carlos.server.config.HibernateCacheConfig;
 import mtzg.carlos.server.modules.orders.OrderModel;
 import mtzg.carlos.server.modules.stores.StoreModel;
+import mtzg.carlos.server.utils.TextUtils;
 
 @Getter
 @Setter
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.PRODUCTS)
+@NaturalIdCache(region = HibernateCacheConfig.PRODUCT_NATURAL_IDS)
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString(exclude = { "stores", "orders" })
 @EqualsAndHashCode(exclude = { "stores", "orders" })
-@Table(name = "products")
+@Table(name = "products", uniqueConstraints = @UniqueConstraint(name = ProductModel.NORMALIZED_NAME_CONSTRAINT, columnNames = "normalized_name"))
 public class ProductModel {
 
+    public static final String NORMALIZED_NAME_CONSTRAINT = "uk_products_normalized_name";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(name = "uuid", nullable = false, unique = true)
     private UUID uuid;
 
     @Column(name = "name", nullable = false)
     private String name;
 
+    // Derived from the name on every write; unique, so names that differ only in case, accents or spacing collide
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName;
+
     @Column(name = "description", nullable = false)
     private String description;
 
     @Column(name = "base_price", nullable = false)
     private double basePrice;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.PRODUCT_STORES)
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "store_products", joinColumns = @JoinColumn(name = "product_id"), inverseJoinColumns = @JoinColumn(name = "store_id"))
     private Set<StoreModel> stores;
 
     @OneToMany(mappedBy = "product", fetch = FetchType.LAZY)
     private Set<OrderModel> orders;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        normalizedName = TextUtils.normalizeName(name);
+    }
 }
@@ -0,0 +1,83 @@
+package mtzg.carlos.server.modules.products;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory copy of the product price history. Each product maps to a
+ * time-ordered skip list, so a point-in-time price is a single
+ * {@code floorEntry} lookup. Prices recorded through this node are added once
+ * they commit; the rest are read incrementally every
+ * {@code pricing.refresh-interval-ms} from {@code effective_from}, which the
+ * database stamps, the same way {@code StorePricingEngine} reads overrides.
+ * History of products deleted through another node stays until restart, but
+ * nothing looks those products up.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductPriceIndex {
+
+    private final IProductPriceRepository productPriceRepository;
+
+    // Rows stamped before a concurrent transaction committed are caught by re-reading this window
+    private static final long REFRESH_OVERLAP_SECONDS = 5;
+
+    private final Map<Long, NavigableMap<LocalDateTime, Double>> prices = new ConcurrentHashMap<>();
+    private volatile LocalDateTime watermark = LocalDateTime.MIN;
+
+    // Built before the startup warm-up, which reads through it
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        productPriceRepository.seedMissing();
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.refresh-interval-ms:30000}", initialDelayString = "${pricing.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        List<ProductPriceModel> changed = watermark.equals(LocalDateTime.MIN) ? productPriceRepository.findAll()
+                : productPriceRepository.findByEffectiveFromAfter(watermark.minusSeconds(REFRESH_OVERLAP_SECONDS));
+        LocalDateTime latest = watermark;
+        for (ProductPriceModel row : changed) {
+            put(row.getProductId(), row.getEffectiveFrom(), row.getPrice());
+            if (row.getEffectiveFrom().isAfter(latest)) {
+                latest = row.getEffectiveFrom();
+            }
+        }
+        watermark = latest;
+    }
+
+    public void put(Long productId, LocalDateTime effectiveFrom, double price) {
+        prices.computeIfAbsent(productId, id -> new ConcurrentSkipListMap<>()).put(effectiveFrom, price);
+    }
+
+    public void remove(Long productId) {
+        prices.remove(productId);
+    }
+
+    /**
+     * Returns the price in effect at {@code at}, or {@code null} when the
+     * product has no price recorded at or before that instant.
+     */
+    public Double priceAt(Long productId, LocalDateTime at) {
+        NavigableMap<LocalDateTime, Double> history = prices.get(productId);
+        if (history == null) {
+            return null;
+        }
+        Map.Entry<LocalDateTime, Double> entry = history.floorEntry(at);
+        return entry == null ? null : entry.getValue();
+    }
+}
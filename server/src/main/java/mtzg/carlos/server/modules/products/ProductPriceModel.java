@@ -0,0 +1,50 @@
+package mtzg.carlos.server.modules.products;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.SourceType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A price of a product from {@code effective_from} on. {@code effective_from}
+ * is set by the database when the row is inserted, so every node orders price
+ * changes by the same clock.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "product_prices", uniqueConstraints = @UniqueConstraint(name = "uk_product_prices_product_effective", columnNames = {
+        "product_id", "effective_from" }), indexes = @Index(name = "idx_product_prices_effective", columnList = "effective_from"))
+public class ProductPriceModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "price", nullable = false)
+    private double price;
+
+    @CurrentTimestamp(source = SourceType.DB)
+    @Column(name = "effective_from", nullable = false)
+    private LocalDateTime effectiveFrom;
+}
@@ -0,0 +1,447 @@
+package mtzg.carlos.server.modules.products;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.utils.ReadReplicaRouter;
+
+/**
+ * Inverted index over product names and descriptions. Terms are folded to
+ * lowercase ASCII and lightly stemmed for Spanish plurals, then kept in a
+ * sorted dictionary so a typeahead prefix is a single range scan. Every query
+ * term must match; matches are ranked by field, exactness and rarity.
+ * <p>
+ * Products are addressed by dense ordinals and postings are immutable arrays
+ * replaced on write, so queries never lock and score into per-thread scratch
+ * arrays instead of allocating maps. Writes are rare and serialized.
+ * <p>
+ * Writes made through this node are applied once they commit. Every product
+ * is re-read every {@code products.search.refresh-interval-ms}, which brings
+ * in products created, edited or deleted through other nodes; only the
+ * products that differ are re-indexed.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOPWORDS = Set.of("a", "al", "con", "de", "del", "el", "en", "la", "las",
+            "lo", "los", "para", "por", "sin", "un", "una", "y");
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    // Shorter query tokens are matched exactly; expanding one letter would touch most of the catalog
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final IProductRepository productRepository;
+
+    public record Hit(UUID uuid, String name, String description, double basePrice, float score) {
+    }
+
+    private record Doc(Long id, UUID uuid, String name, String description, double basePrice,
+            Set<String> terms) {
+    }
+
+    private record Posting(int[] docs, float[] weights) {
+
+        Posting with(int doc, float weight) {
+            for (int i = 0; i < docs.length; i++) {
+                if (docs[i] == doc) {
+                    float[] nextWeights = weights.clone();
+                    nextWeights[i] = weight;
+                    return new Posting(docs, nextWeights);
+                }
+            }
+            int[] nextDocs = Arrays.copyOf(docs, docs.length + 1);
+            float[] nextWeights = Arrays.copyOf(weights, weights.length + 1);
+            nextDocs[docs.length] = doc;
+            nextWeights[weights.length] = weight;
+            return new Posting(nextDocs, nextWeights);
+        }
+
+        Posting without(int doc) {
+            for (int i = 0; i < docs.length; i++) {
+                if (docs[i] == doc) {
+                    if (docs.length == 1) {
+                        return null;
+                    }
+                    int[] nextDocs = new int[docs.length - 1];
+                    float[] nextWeights = new float[weights.length - 1];
+                    System.arraycopy(docs, 0, nextDocs, 0, i);
+                    System.arraycopy(docs, i + 1, nextDocs, i, docs.length - i - 1);
+                    System.arraycopy(weights, 0, nextWeights, 0, i);
+                    System.arraycopy(weights, i + 1, nextWeights, i, weights.length - i - 1);
+                    return new Posting(nextDocs, nextWeights);
+                }
+            }
+            return this;
+        }
+    }
+
+    private static final class Scratch {
+        float[] total = new float[0];
+        float[] best = new float[0];
+        int[] matched = new int[0];
+        int[] seen = new int[0];
+        int[] current = new int[0];
+
+        void ensure(int size) {
+            if (total.length < size) {
+                total = new float[size];
+                best = new float[size];
+                matched = new int[size];
+                seen = new int[size];
+                current = new int[size];
+            }
+        }
+    }
+
+    private final NavigableMap<String, Posting> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private volatile Doc[] docs = new Doc[1024];
+    private volatile int size;
+    private int nextOrdinal;
+
+    // Built before the startup warm-up, which reads through it. Read from the primary and under the
+    // writers' lock, so a product put after its commit is never replaced by an older copy
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Scheduled(fixedDelayString = "${products.search.refresh-interval-ms:60000}", initialDelayString = "${products.search.refresh-interval-ms:60000}")
+    @Transactional(readOnly = true, label = ReadReplicaRouter.PRIMARY)
+    public synchronized void load() {
+        Map<Long, ProductModel> current = new HashMap<>();
+        for (Object[] row : productRepository.findAllSearchFields()) {
+            current.put((Long) row[0], ProductModel.builder()
+                    .id((Long) row[0])
+                    .uuid((UUID) row[1])
+                    .name((String) row[2])
+                    .description((String) row[3])
+                    .basePrice((Double) row[4])
+                    .build());
+        }
+        if (ordinals.isEmpty()) {
+            build(current.values());
+            return;
+        }
+        List.copyOf(ordinals.keySet()).forEach(productId -> {
+            if (!current.containsKey(productId)) {
+                remove(productId);
+            }
+        });
+        current.values().forEach(product -> {
+            Integer ordinal = ordinals.get(product.getId());
+            if (ordinal == null || !indexes(docs[ordinal], product)) {
+                put(product);
+            }
+        });
+    }
+
+    private void build(Iterable<ProductModel> products) {
+        Map<String, List<int[]>> building = new HashMap<>();
+        Map<String, List<Float>> buildingWeights = new HashMap<>();
+        for (ProductModel product : products) {
+            int ordinal = ordinalFor(product.getId());
+            Map<String, Float> weights = weigh(product);
+            store(ordinal, product, weights.keySet());
+            weights.forEach((term, weight) -> {
+                building.computeIfAbsent(term, t -> new ArrayList<>()).add(new int[] { ordinal });
+                buildingWeights.computeIfAbsent(term, t -> new ArrayList<>()).add(weight);
+            });
+        }
+        building.forEach((term, list) -> {
+            List<Float> weightList = buildingWeights.get(term);
+            int[] termDocs = new int[list.size()];
+            float[] termWeights = new float[list.size()];
+            for (int i = 0; i < termDocs.length; i++) {
+                termDocs[i] = list.get(i)[0];
+                termWeights[i] = weightList.get(i);
+            }
+            postings.put(term, new Posting(termDocs, termWeights));
+        });
+    }
+
+    public synchronized void put(ProductModel product) {
+        int ordinal = ordinalFor(product.getId());
+        Map<String, Float> weights = weigh(product);
+        Doc previous = docs[ordinal];
+        store(ordinal, product, weights.keySet());
+        if (previous != null) {
+            previous.terms().stream()
+                    .filter(term -> !weights.containsKey(term))
+                    .forEach(term -> postings.computeIfPresent(term, (t, posting) -> posting.without(ordinal)));
+        }
+        weights.forEach((term, weight) -> postings.compute(term, (t, posting) -> posting == null
+                ? new Posting(new int[] { ordinal }, new float[] { weight })
+                : posting.with(ordinal, weight)));
+    }
+
+    public synchronized void remove(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        Doc previous = docs[ordinal];
+        previous.terms().forEach(term -> postings.computeIfPresent(term, (t, posting) -> posting.without(ordinal)));
+        docs[ordinal] = null;
+        size--;
+        freeOrdinals.push(ordinal);
+    }
+
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = tokenize(query, false);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        Doc[] snapshot = docs;
+        int total = Math.max(size, 1);
+
+        // Resolve each token to its matching terms and start from the most selective one
+        List<List<Map.Entry<String, Posting>>> expansions = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            NavigableMap<String, Posting> terms = token.length() < MIN_PREFIX_LENGTH
+                    ? postings.subMap(token, true, token, true)
+                    : postings.subMap(token, true, token + Character.MAX_VALUE, false);
+            if (terms.isEmpty()) {
+                return List.of();
+            }
+            expansions.add(new ArrayList<>(terms.entrySet()));
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong(i -> expansions.get(i).stream()
+                .mapToLong(entry -> entry.getValue().docs().length).sum()));
+
+        Scratch s = scratch.get();
+        s.ensure(snapshot.length);
+        int seenCount = 0;
+        int currentCount = 0;
+        try {
+            for (int round = 0; round < order.size(); round++) {
+                String token = tokens.get(order.get(round));
+                int[] touched = round == 0 ? s.seen : s.current;
+                int touchedCount = 0;
+                for (Map.Entry<String, Posting> entry : expansions.get(order.get(round))) {
+                    String term = entry.getKey();
+                    Posting posting = entry.getValue();
+                    float idf = (float) Math.log(1 + (double) total / posting.docs().length);
+                    float closeness = term.length() == token.length() ? 1f
+                            : 0.5f + 0.5f * token.length() / term.length();
+                    float factor = idf * closeness;
+                    int[] termDocs = posting.docs();
+                    float[] termWeights = posting.weights();
+                    for (int j = 0; j < termDocs.length; j++) {
+                        int doc = termDocs[j];
+                        if (doc >= snapshot.length || s.matched[doc] != round) {
+                            continue;
+                        }
+                        float score = termWeights[j] * factor;
+                        if (s.best[doc] == 0f) {
+                            touched[touchedCount++] = doc;
+                        }
+                        if (score > s.best[doc]) {
+                            s.best[doc] = score;
+                        }
+                    }
+                }
+                for (int k = 0; k < touchedCount; k++) {
+                    int doc = touched[k];
+                    s.total[doc] += s.best[doc];
+                    s.best[doc] = 0f;
+                    s.matched[doc] = round + 1;
+                }
+                if (round == 0) {
+                    seenCount = touchedCount;
+                }
+                currentCount = touchedCount;
+                if (touchedCount == 0) {
+                    return List.of();
+                }
+            }
+
+            int[] candidates = order.size() == 1 ? s.seen : s.current;
+            int[] heap = new int[Math.min(limit, currentCount)];
+            int heapSize = 0;
+            for (int k = 0; k < currentCount; k++) {
+                int doc = candidates[k];
+                if (snapshot[doc] == null) {
+                    continue;
+                }
+                if (heapSize < heap.length) {
+                    heap[heapSize++] = doc;
+                    siftUp(heap, heapSize - 1, snapshot, s.total);
+                } else if (ranksAbove(doc, heap[0], snapshot, s.total)) {
+                    heap[0] = doc;
+                    siftDown(heap, heapSize, snapshot, s.total);
+                }
+            }
+            List<Hit> hits = new ArrayList<>(heapSize);
+            while (heapSize > 0) {
+                int doc = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, snapshot, s.total);
+                Doc product = snapshot[doc];
+                hits.add(new Hit(product.uuid(), product.name(), product.description(), product.basePrice(),
+                        s.total[doc]));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            for (int k = 0; k < seenCount; k++) {
+                int doc = s.seen[k];
+                s.total[doc] = 0f;
+                s.matched[doc] = 0;
+            }
+        }
+    }
+
+    // Higher score first, then the shorter name, then alphabetical
+    private static boolean ranksAbove(int a, int b, Doc[] docs, float[] scores) {
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b];
+        }
+        int lengthA = docs[a].name().length();
+        int lengthB = docs[b].name().length();
+        if (lengthA != lengthB) {
+            return lengthA < lengthB;
+        }
+        return docs[a].name().compareTo(docs[b].name()) < 0;
+    }
+
+    // Min-heap on rank: the root is the weakest of the current top results
+    private static void siftUp(int[] heap, int index, Doc[] docs, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksAbove(heap[parent], heap[index], docs, scores)) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Doc[] docs, float[] scores) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int weakest = left;
+            int right = left + 1;
+            if (right < size && ranksAbove(heap[weakest], heap[right], docs, scores)) {
+                weakest = right;
+            }
+            if (!ranksAbove(heap[index], heap[weakest], docs, scores)) {
+                return;
+            }
+            swap(heap, index, weakest);
+            index = weakest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private int ordinalFor(Long productId) {
+        Integer existing = ordinals.get(productId);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        ordinals.put(productId, ordinal);
+        if (ordinal >= docs.length) {
+            docs = Arrays.copyOf(docs, Math.max(ordinal + 1, docs.length * 2));
+        }
+        return ordinal;
+    }
+
+    private static boolean indexes(Doc doc, ProductModel product) {
+        return doc != null && doc.uuid().equals(product.getUuid()) && doc.name().equals(product.getName())
+                && Objects.equals(doc.description(), product.getDescription())
+                && doc.basePrice() == product.getBasePrice();
+    }
+
+    private void store(int ordinal, ProductModel product, Set<String> terms) {
+        if (docs[ordinal] == null) {
+            size++;
+        }
+        docs[ordinal] = new Doc(product.getId(), product.getUuid(), product.getName(), product.getDescription(),
+                product.getBasePrice(), Set.copyOf(terms));
+    }
+
+    private static Map<String, Float> weigh(ProductModel product) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : tokenize(product.getDescription(), true)) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Math::max);
+        }
+        for (String term : tokenize(product.getName(), true)) {
+            weights.merge(term, NAME_WEIGHT, Math::max);
+        }
+        return weights;
+    }
+
+    /**
+     * Splits text into folded, stemmed terms. Indexing also keeps the unstemmed
+     * form so a partially typed plural still prefix-matches.
+     */
+    static List<String> tokenize(String text, boolean withSurfaceForms) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                terms.add(stem(token));
+                if (withSurfaceForms) {
+                    terms.add(token);
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    // Plural folding only: "limones" -> "limon", "galletas" -> "galleta"
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("es") && "lnrdj".indexOf(token.charAt(token.length() - 3)) >= 0) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.length() > 3 && token.endsWith("s") && !Character.isDigit(token.charAt(token.length() - 2))) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
@@ -1,30 +1,56 @@
 package mtzg.carlos.server.modules.products;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import mtzg.carlos.server.modules.inventory.IStoreInventoryRepository;
+import mtzg.carlos.server.modules.inventory.InventoryCounters;
+import mtzg.carlos.server.modules.storeproducts.IStoreProductPriceRepository;
+import mtzg.carlos.server.modules.storeproducts.StorePricingEngine;
 import mtzg.carlos.server.modules.stores.IStoreRepository;
 import mtzg.carlos.server.modules.stores.StoreModel;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.config.CacheConfig;
+import mtzg.carlos.server.modules.products.dto.ProductPriceDto;
 import mtzg.carlos.server.modules.products.dto.ProductRegisterDto;
 import mtzg.carlos.server.modules.products.dto.ProductResponseDto;
 import mtzg.carlos.server.modules.products.dto.ProductUpdateDto;
+import mtzg.carlos.server.utils.PersistenceUtils;
+import mtzg.carlos.server.utils.TransactionUtils;
+import mtzg.carlos.server.utils.UuidUtils;
 import mtzg.carlos.server.utils.Utilities;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final String STORE_PRODUCTS_ROLE = StoreModel.class.getName() + ".products";
+
     private final IProductRepository productRepository;
     private final IStoreRepository storeRepository;
+    private final IProductPriceRepository productPriceRepository;
+    private final ProductPriceIndex productPriceIndex;
+    private final ProductSearchIndex searchIndex;
+    private final IStoreProductPriceRepository storeProductPriceRepository;
+    private final StorePricingEngine pricingEngine;
+    private final IStoreInventoryRepository inventoryRepository;
+    private final InventoryCounters inventoryCounters;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Transactional(readOnly = true)
     public ResponseEntity<Object> getAllProducts() {
@@ -66,21 +92,50 @@ public class ProductService {
         }
     }
 
-    @Transactional
-    public ResponseEntity<Object> registerProduct(ProductRegisterDto dto) {
+    public ResponseEntity<Object> searchProducts(String query, int limit) {
         try {
-            if (productRepository.findByNameIgnoreCase(dto.getName()).isPresent()) {
-                return Utilities.simpleResponse(HttpStatus.CONFLICT, "Product with this name already exists");
+            if (query == null || query.isBlank()) {
+                return Utilities.simpleResponse(HttpStatus.BAD_REQUEST, "Search query cannot be empty");
             }
+            if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+                return Utilities.simpleResponse(HttpStatus.BAD_REQUEST,
+                        "Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+            }
+            List<ProductResponseDto> results = searchIndex.search(query, limit).stream()
+                    .map(hit -> ProductResponseDto.builder()
+                            .uuid(hit.uuid())
+                            .name(hit.name())
+                            .description(hit.description())
+                            .basePrice(hit.basePrice())
+                            .build())
+                    .toList();
+            return Utilities.generateResponse(HttpStatus.OK, "Products retrieved successfully", results);
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while searching products.");
+        }
+    }
 
+    @Transactional
+    public ResponseEntity<Object> registerProduct(ProductRegisterDto dto) {
+        try {
             ProductModel product = ProductModel.builder()
-                    .uuid(UUID.randomUUID())
+                    .uuid(UuidUtils.v7())
                     .name(dto.getName())
                     .description(dto.getDescription())
                     .basePrice(dto.getBasePrice())
                     .build();
-            productRepository.save(product);
+            productRepository.saveAndFlush(product);
+            recordPrice(product);
+            TransactionUtils.afterCommit(() -> searchIndex.put(product));
             return Utilities.simpleResponse(HttpStatus.CREATED, "Product registered successfully");
+        } catch (DataIntegrityViolationException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            if (PersistenceUtils.violates(e, ProductModel.NORMALIZED_NAME_CONSTRAINT)) {
+                return Utilities.simpleResponse(HttpStatus.CONFLICT, "Product with this name already exists");
+            }
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while registering the product.");
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
                     "An error occurred while registering the product.");
@@ -88,6 +143,7 @@ public class ProductService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DRIVER_ROUTES, allEntries = true)
     public ResponseEntity<Object> updateProduct(UUID uuid, ProductUpdateDto dto) {
         try {
             Optional<ProductModel> productOpt = productRepository.findByUuid(uuid);
@@ -97,21 +153,29 @@ public class ProductService {
             ProductModel product = productOpt.get();
 
             if (dto.getName() != null && !dto.getName().isBlank()) {
-                Optional<ProductModel> existingProductOpt = productRepository.findByNameIgnoreCase(dto.getName());
-                if (existingProductOpt.isPresent() && !existingProductOpt.get().getUuid().equals(uuid)) {
-                    return Utilities.simpleResponse(HttpStatus.CONFLICT,
-                            "Another product with this name already exists");
-                }
                 product.setName(dto.getName());
             }
             if (dto.getDescription() != null && !dto.getDescription().isBlank()) {
                 product.setDescription(dto.getDescription());
             }
-            if (dto.getBasePrice() != null && dto.getBasePrice() > 0) {
+            boolean priceChanged = dto.getBasePrice() != null && dto.getBasePrice() > 0
+                    && dto.getBasePrice() != product.getBasePrice();
+            if (priceChanged) {
                 product.setBasePrice(dto.getBasePrice());
             }
-            productRepository.save(product);
+            productRepository.saveAndFlush(product);
+            if (priceChanged) {
+                recordPrice(product);
+            }
+            TransactionUtils.afterCommit(() -> searchIndex.put(product));
             return Utilities.simpleResponse(HttpStatus.OK, "Product updated successfully");
+        } catch (DataIntegrityViolationException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            if (PersistenceUtils.violates(e, ProductModel.NORMALIZED_NAME_CONSTRAINT)) {
+                return Utilities.simpleResponse(HttpStatus.CONFLICT, "Another product with this name already exists");
+            }
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while updating the product.");
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
                     "An error occurred while updating the product.");
@@ -119,6 +183,7 @@ public class ProductService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DRIVER_ROUTES, allEntries = true)
     public ResponseEntity<Object> deleteProduct(UUID uuid) {
         try {
             Optional<ProductModel> productOpt = productRepository.findByUuid(uuid);
@@ -130,7 +195,22 @@ public class ProductService {
                 return Utilities.simpleResponse(HttpStatus.CONFLICT,
                         "Cannot delete product associated with existing orders.");
             }
+            // Only the owning side is updated, so the stores' cached product collections are evicted below
+            List<Long> storeIds = product.getStores() == null ? List.of()
+                    : product.getStores().stream().map(StoreModel::getId).toList();
+            productPriceRepository.deleteByProductId(product.getId());
             productRepository.delete(product);
+            Long productId = product.getId();
+            storeProductPriceRepository.clearByProductId(productId);
+            inventoryRepository.deleteByProductId(productId);
+            TransactionUtils.afterCommit(() -> {
+                productPriceIndex.remove(productId);
+                pricingEngine.clearProduct(productId);
+                inventoryCounters.removeProduct(productId);
+                searchIndex.remove(productId);
+                storeIds.forEach(storeId -> entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                        .evictCollectionData(STORE_PRODUCTS_ROLE, storeId));
+            });
             return Utilities.simpleResponse(HttpStatus.OK, "Product deleted successfully");
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
@@ -146,6 +226,7 @@ public class ProductService {
             return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Store not found");
         }
         StoreModel store = storeOpt.get();
+        LocalDateTime now = LocalDateTime.now();
 
         Set<ProductResponseDto> productResponseDtos = store.getProducts().stream()
                 .map(product -> ProductResponseDto.builder()
@@ -153,6 +234,7 @@ public class ProductService {
                         .name(product.getName())
                         .description(product.getDescription())
                         .basePrice(product.getBasePrice())
+                        .price(pricingEngine.priceFor(store.getId(), product, now))
                         .build())
                 .collect(Collectors.toSet());
         if (productResponseDtos.isEmpty()) {
@@ -161,4 +243,58 @@ public class ProductService {
         return Utilities.generateResponse(HttpStatus.OK, "products fetched successfully", productResponseDtos);
     }
 
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getPriceHistory(UUID uuid) {
+        try {
+            Optional<ProductModel> productOpt = productRepository.findByUuid(uuid);
+            if (productOpt.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Product not found");
+            }
+            List<ProductPriceDto> history = productPriceRepository
+                    .findByProductIdOrderByEffectiveFromAsc(productOpt.get().getId()).stream()
+                    .map(price -> ProductPriceDto.builder()
+                            .productUuid(uuid)
+                            .price(price.getPrice())
+                            .effectiveFrom(price.getEffectiveFrom())
+                            .build())
+                    .toList();
+            return Utilities.generateResponse(HttpStatus.OK, "Price history retrieved successfully", history);
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while fetching the price history.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getPriceAt(UUID uuid, LocalDateTime at) {
+        try {
+            Optional<ProductModel> productOpt = productRepository.findByUuid(uuid);
+            if (productOpt.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Product not found");
+            }
+            LocalDateTime instant = at != null ? at : LocalDateTime.now();
+            Double price = productPriceIndex.priceAt(productOpt.get().getId(), instant);
+            if (price == null) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "No price recorded for this product at " + instant);
+            }
+            ProductPriceDto dto = ProductPriceDto.builder()
+                    .productUuid(uuid)
+                    .price(price)
+                    .effectiveFrom(instant)
+                    .build();
+            return Utilities.generateResponse(HttpStatus.OK, "Price retrieved successfully", dto);
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while fetching the price.");
+        }
+    }
+
+    private void recordPrice(ProductModel product) {
+        ProductPriceModel price = productPriceRepository.save(ProductPriceModel.builder()
+                .productId(product.getId())
+                .price(product.getBasePrice())
+                .build());
+        TransactionUtils.afterCommit(
+                () -> productPriceIndex.put(price.getProductId(), price.getEffectiveFrom(), price.getPrice()));
+    }
 }
@@ -0,0 +1,22 @@
+package mtzg.carlos.server.modules.products.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPriceDto {
+
+    private UUID productUuid;
+    private double price;
+    private LocalDateTime effectiveFrom;
+}
@@ -2,6 +2,8 @@ package mtzg.carlos.server.modules.products.dto;
 
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -13,10 +15,13 @@ import lombok.Setter;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ProductResponseDto {
 
     private UUID uuid;
     private String name;
     private String description;
     private double basePrice;
+    // Effective price at a specific store, only set on store listings
+    private Double price;
 }
@@ -0,0 +1,52 @@
+package mtzg.carlos.server.modules.reports;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "daily_store_product_sales", uniqueConstraints = @UniqueConstraint(name = "uk_daily_store_product_sales", columnNames = {
+        "sales_date", "store_id", "product_id" }), indexes = {
+                @Index(name = "idx_daily_store_product_sales_store", columnList = "store_id, sales_date"),
+                @Index(name = "idx_daily_store_product_sales_product", columnList = "product_id, sales_date") })
+public class DailyStoreProductSalesModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    @Column(name = "revenue", nullable = false)
+    private Double revenue;
+
+    @Column(name = "order_count", nullable = false)
+    private Integer orderCount;
+}
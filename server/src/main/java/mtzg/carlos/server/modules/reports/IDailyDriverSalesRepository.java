@@ -0,0 +1,61 @@
+package mtzg.carlos.server.modules.reports;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import mtzg.carlos.server.modules.reports.dto.SalesDailyDto;
+import mtzg.carlos.server.modules.reports.dto.SalesTotalDto;
+
+@Repository
+public interface IDailyDriverSalesRepository extends JpaRepository<DailyDriverSalesModel, Long> {
+
+    // The increments are the bound parameters rather than VALUES(col), which MySQL deprecates; the row alias
+    // form that replaces it isn't understood by MariaDB or H2
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_driver_sales"))
+    @Modifying
+    @Query(value = "INSERT INTO daily_driver_sales (sales_date, user_id, visit_count, quantity, revenue) "
+            + "VALUES (:salesDate, :userId, :visitCount, :quantity, :revenue) "
+            + "ON DUPLICATE KEY UPDATE visit_count = visit_count + :visitCount, "
+            + "quantity = quantity + :quantity, revenue = revenue + :revenue", nativeQuery = true)
+    void upsert(@Param("salesDate") LocalDate salesDate, @Param("userId") Long userId,
+            @Param("visitCount") int visitCount, @Param("quantity") long quantity, @Param("revenue") double revenue);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_driver_sales"))
+    @Modifying
+    @Query(value = "DELETE FROM daily_driver_sales WHERE sales_date = :salesDate AND user_id = :userId "
+            + "AND visit_count <= 0", nativeQuery = true)
+    void deleteEmpty(@Param("salesDate") LocalDate salesDate, @Param("userId") Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_driver_sales"))
+    @Modifying
+    @Query(value = "INSERT INTO daily_driver_sales (sales_date, user_id, visit_count, quantity, revenue) "
+            + "SELECT v.date, v.user_id, COUNT(DISTINCT v.id), COALESCE(SUM(o.quantity), 0), COALESCE(SUM(o.total), 0) "
+            + "FROM visits v LEFT JOIN order_details o ON o.visit_id = v.id "
+            + "GROUP BY v.date, v.user_id", nativeQuery = true)
+    void rebuild();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_driver_sales"))
+    @Modifying
+    @Query(value = "DELETE FROM daily_driver_sales", nativeQuery = true)
+    void deleteAllRows();
+
+    @Query("SELECT new mtzg.carlos.server.modules.reports.dto.SalesTotalDto(u.uuid, u.name, SUM(r.quantity), SUM(r.revenue)) "
+            + "FROM DailyDriverSalesModel r JOIN UserModel u ON u.id = r.userId "
+            + "WHERE r.salesDate BETWEEN :from AND :to GROUP BY u.uuid, u.name ORDER BY SUM(r.revenue) DESC")
+    List<SalesTotalDto> totalsByDriver(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new mtzg.carlos.server.modules.reports.dto.SalesDailyDto(r.salesDate, SUM(r.visitCount), SUM(r.quantity), SUM(r.revenue)) "
+            + "FROM DailyDriverSalesModel r WHERE r.salesDate BETWEEN :from AND :to "
+            + "GROUP BY r.salesDate ORDER BY r.salesDate")
+    List<SalesDailyDto> dailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,69 @@
+package mtzg.carlos.server.modules.reports;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import mtzg.carlos.server.modules.reports.dto.SalesTotalDto;
+
+@Repository
+public interface IDailyStoreProductSalesRepository extends JpaRepository<DailyStoreProductSalesModel, Long> {
+
+    // Increments by the bound parameters, see IDailyDriverSalesRepository.upsert
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_store_product_sales"))
+    @Modifying
+    @Query(value = "INSERT INTO daily_store_product_sales (sales_date, store_id, product_id, quantity, revenue, order_count) "
+            + "VALUES (:salesDate, :storeId, :productId, :quantity, :revenue, :orderCount) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + :quantity, revenue = revenue + :revenue, "
+            + "order_count = order_count + :orderCount", nativeQuery = true)
+    void upsert(@Param("salesDate") LocalDate salesDate, @Param("storeId") Long storeId,
+            @Param("productId") Long productId, @Param("quantity") long quantity, @Param("revenue") double revenue,
+            @Param("orderCount") int orderCount);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_store_product_sales"))
+    @Modifying
+    @Query(value = "DELETE FROM daily_store_product_sales WHERE sales_date = :salesDate AND store_id = :storeId "
+            + "AND order_count <= 0", nativeQuery = true)
+    void deleteEmpty(@Param("salesDate") LocalDate salesDate, @Param("storeId") Long storeId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_store_product_sales"))
+    @Modifying
+    @Query(value = "INSERT INTO daily_store_product_sales (sales_date, store_id, product_id, quantity, revenue, order_count) "
+            + "SELECT v.date, v.store_id, o.product_id, SUM(o.quantity), SUM(o.total), COUNT(*) "
+            + "FROM visits v JOIN order_details o ON o.visit_id = v.id "
+            + "GROUP BY v.date, v.store_id, o.product_id", nativeQuery = true)
+    void rebuild();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_store_product_sales"))
+    @Modifying
+    @Query(value = "DELETE FROM daily_store_product_sales", nativeQuery = true)
+    void deleteAllRows();
+
+    @Query("SELECT new mtzg.carlos.server.modules.reports.dto.SalesTotalDto(s.uuid, s.name, SUM(r.quantity), SUM(r.revenue)) "
+            + "FROM DailyStoreProductSalesModel r JOIN StoreModel s ON s.id = r.storeId "
+            + "WHERE r.salesDate BETWEEN :from AND :to GROUP BY s.uuid, s.name ORDER BY SUM(r.revenue) DESC")
+    List<SalesTotalDto> totalsByStore(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new mtzg.carlos.server.modules.reports.dto.SalesTotalDto(p.uuid, p.name, SUM(r.quantity), SUM(r.revenue)) "
+            + "FROM DailyStoreProductSalesModel r JOIN ProductModel p ON p.id = r.productId "
+            + "WHERE r.salesDate BETWEEN :from AND :to GROUP BY p.uuid, p.name ORDER BY SUM(r.revenue) DESC")
+    List<SalesTotalDto> totalsByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new mtzg.carlos.server.modules.reports.dto.SalesTotalDto(p.uuid, p.name, SUM(r.quantity), SUM(r.revenue)) "
+            + "FROM DailyStoreProductSalesModel r JOIN ProductModel p ON p.id = r.productId "
+            + "JOIN StoreModel s ON s.id = r.storeId "
+            + "WHERE s.uuid = :storeUuid AND r.salesDate BETWEEN :from AND :to "
+            + "GROUP BY p.uuid, p.name ORDER BY SUM(r.revenue) DESC")
+    List<SalesTotalDto> totalsByProductForStore(@Param("storeUuid") UUID storeUuid, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+}
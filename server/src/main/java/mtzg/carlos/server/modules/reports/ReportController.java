@@ -0,0 +1,56 @@
+package mtzg.carlos.server.modules.reports;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final ReportService reportService;
+
+    @GetMapping("/sales/stores")
+    public ResponseEntity<Object> getSalesByStore(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportService.getSalesByStore(from, to);
+    }
+
+    @GetMapping("/sales/products")
+    public ResponseEntity<Object> getSalesByProduct(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "storeUuid", required = false) UUID storeUuid) {
+        return reportService.getSalesByProduct(from, to, storeUuid);
+    }
+
+    @GetMapping("/sales/drivers")
+    public ResponseEntity<Object> getSalesByDriver(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportService.getSalesByDriver(from, to);
+    }
+
+    @GetMapping("/sales/daily")
+    public ResponseEntity<Object> getDailySales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportService.getDailySales(from, to);
+    }
+
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<Object> rebuildRollups() {
+        return reportService.rebuildRollups();
+    }
+}
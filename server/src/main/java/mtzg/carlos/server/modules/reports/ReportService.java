@@ -0,0 +1,96 @@
+package mtzg.carlos.server.modules.reports;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.modules.reports.dto.SalesDailyDto;
+import mtzg.carlos.server.modules.reports.dto.SalesTotalDto;
+import mtzg.carlos.server.utils.Utilities;
+
+@Service
+@RequiredArgsConstructor
+public class ReportService {
+
+    private final IDailyStoreProductSalesRepository storeProductSalesRepository;
+    private final IDailyDriverSalesRepository driverSalesRepository;
+    private final SalesRollupService salesRollupService;
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSalesByStore(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return invalidRange();
+        }
+        try {
+            List<SalesTotalDto> totals = storeProductSalesRepository.totalsByStore(from, to);
+            return Utilities.generateResponse(HttpStatus.OK, "Store sales retrieved successfully", totals);
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while retrieving store sales.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSalesByProduct(LocalDate from, LocalDate to, UUID storeUuid) {
+        if (from.isAfter(to)) {
+            return invalidRange();
+        }
+        try {
+            List<SalesTotalDto> totals = storeUuid == null
+                    ? storeProductSalesRepository.totalsByProduct(from, to)
+                    : storeProductSalesRepository.totalsByProductForStore(storeUuid, from, to);
+            return Utilities.generateResponse(HttpStatus.OK, "Product sales retrieved successfully", totals);
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while retrieving product sales.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSalesByDriver(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return invalidRange();
+        }
+        try {
+            List<SalesTotalDto> totals = driverSalesRepository.totalsByDriver(from, to);
+            return Utilities.generateResponse(HttpStatus.OK, "Driver sales retrieved successfully", totals);
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while retrieving driver sales.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getDailySales(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return invalidRange();
+        }
+        try {
+            List<SalesDailyDto> totals = driverSalesRepository.dailyTotals(from, to);
+            return Utilities.generateResponse(HttpStatus.OK, "Daily sales retrieved successfully", totals);
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while retrieving daily sales.");
+        }
+    }
+
+    public ResponseEntity<Object> rebuildRollups() {
+        try {
+            salesRollupService.rebuild();
+            return Utilities.simpleResponse(HttpStatus.OK, "Sales rollups rebuilt successfully");
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while rebuilding sales rollups.");
+        }
+    }
+
+    private ResponseEntity<Object> invalidRange() {
+        return Utilities.simpleResponse(HttpStatus.BAD_REQUEST, "The start date must not be after the end date");
+    }
+}
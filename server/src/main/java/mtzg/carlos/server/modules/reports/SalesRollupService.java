@@ -0,0 +1,78 @@
+package mtzg.carlos.server.modules.reports;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.modules.orders.OrderModel;
+import mtzg.carlos.server.modules.visits.VisitModel;
+
+/**
+ * Keeps the daily sales rollups in step with visits. Both methods join the
+ * caller's transaction, so a rollup change commits or rolls back together with
+ * the visit that caused it.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+
+    private final IDailyStoreProductSalesRepository storeProductSalesRepository;
+    private final IDailyDriverSalesRepository driverSalesRepository;
+
+    private record Line(long quantity, double revenue, int orders) {
+
+        Line plus(OrderModel order) {
+            return new Line(quantity + order.getQuantity(), revenue + order.getTotal(), orders + 1);
+        }
+    }
+
+    @Transactional
+    public void recordVisit(VisitModel visit) {
+        apply(visit, 1);
+    }
+
+    @Transactional
+    public void revertVisit(VisitModel visit) {
+        apply(visit, -1);
+        storeProductSalesRepository.deleteEmpty(visit.getDate(), visit.getStore().getId());
+        driverSalesRepository.deleteEmpty(visit.getDate(), visit.getUser().getId());
+    }
+
+    private void apply(VisitModel visit, int sign) {
+        Map<Long, Line> lines = new HashMap<>();
+        if (visit.getOrders() != null) {
+            for (OrderModel order : visit.getOrders()) {
+                lines.merge(order.getProduct().getId(), new Line(0, 0, 0).plus(order),
+                        (a, b) -> new Line(a.quantity() + b.quantity(), a.revenue() + b.revenue(),
+                                a.orders() + b.orders()));
+            }
+        }
+
+        long quantity = 0;
+        double revenue = 0;
+        for (Map.Entry<Long, Line> entry : lines.entrySet()) {
+            Line line = entry.getValue();
+            storeProductSalesRepository.upsert(visit.getDate(), visit.getStore().getId(), entry.getKey(),
+                    sign * line.quantity(), sign * line.revenue(), sign * line.orders());
+            quantity += line.quantity();
+            revenue += line.revenue();
+        }
+        driverSalesRepository.upsert(visit.getDate(), visit.getUser().getId(), sign, sign * quantity,
+                sign * revenue);
+    }
+
+    /**
+     * Recomputes both rollup tables from visits and orders. Used once after the
+     * tables are introduced and whenever the rollups are suspected to drift.
+     */
+    @Transactional
+    public void rebuild() {
+        storeProductSalesRepository.deleteAllRows();
+        driverSalesRepository.deleteAllRows();
+        storeProductSalesRepository.rebuild();
+        driverSalesRepository.rebuild();
+    }
+}
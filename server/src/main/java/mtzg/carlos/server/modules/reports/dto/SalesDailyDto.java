@@ -0,0 +1,22 @@
+package mtzg.carlos.server.modules.reports.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesDailyDto {
+
+    private LocalDate date;
+    private Long visits;
+    private Long quantity;
+    private Double revenue;
+}
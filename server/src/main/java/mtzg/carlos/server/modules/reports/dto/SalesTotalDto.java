@@ -0,0 +1,22 @@
+package mtzg.carlos.server.modules.reports.dto;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesTotalDto {
+
+    private UUID uuid;
+    private String name;
+    private Long quantity;
+    private Double revenue;
+}
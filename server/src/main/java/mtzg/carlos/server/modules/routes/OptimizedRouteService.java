@@ -0,0 +1,70 @@
+package mtzg.carlos.server.modules.routes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.config.CacheConfig;
+import mtzg.carlos.server.modules.routes.dto.OptimizedRouteDto;
+import mtzg.carlos.server.modules.stores.DriverRouteService;
+import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
+
+@Service
+@RequiredArgsConstructor
+public class OptimizedRouteService {
+
+    private final DriverRouteService driverRouteService;
+    private final RouteOptimizer routeOptimizer;
+
+    /**
+     * Orders a driver's assigned stores into a short visiting sequence. Results
+     * without a starting position are cached until the driver's assignment or
+     * any store changes; an empty result means the driver does not exist. The
+     * stores come from {@link DriverRouteService#getRoute}, which reads them
+     * from the primary.
+     */
+    @Cacheable(cacheNames = CacheConfig.OPTIMIZED_ROUTES, key = "#userUuid", condition = "#latitude == null || #longitude == null", unless = "#result == null")
+    public Optional<OptimizedRouteDto> getOptimizedRoute(UUID userUuid, Double latitude, Double longitude) {
+        Optional<List<StoreResponseDto>> route = driverRouteService.getRoute(userUuid, false);
+        if (route.isEmpty()) {
+            return Optional.empty();
+        }
+        List<StoreResponseDto> stores = route.get();
+        boolean fixedStart = latitude != null && longitude != null;
+        int offset = fixedStart ? 1 : 0;
+
+        double[][] points = new double[stores.size() + offset][];
+        if (fixedStart) {
+            points[0] = new double[] { latitude, longitude };
+        }
+        for (int i = 0; i < stores.size(); i++) {
+            points[i + offset] = new double[] { stores.get(i).getLatitude(), stores.get(i).getLongitude() };
+        }
+
+        RouteOptimizer.Result result = routeOptimizer.optimize(points, fixedStart);
+        List<StoreResponseDto> stops = new ArrayList<>(stores.size());
+        for (int index : result.order()) {
+            if (index >= offset) {
+                StoreResponseDto store = stores.get(index - offset);
+                stops.add(StoreResponseDto.builder()
+                        .uuid(store.getUuid())
+                        .name(store.getName())
+                        .address(store.getAddress())
+                        .latitude(store.getLatitude())
+                        .longitude(store.getLongitude())
+                        .qrCode(store.getQrCode())
+                        .build());
+            }
+        }
+        return Optional.of(OptimizedRouteDto.builder()
+                .userUuid(userUuid)
+                .totalDistance(result.distance())
+                .stops(stops)
+                .build());
+    }
+}
@@ -1,13 +1,19 @@
 package mtzg.carlos.server.modules.routes;
 
+import java.util.UUID;
+
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.modules.routes.dto.RoutePlanDto;
 import mtzg.carlos.server.modules.routes.dto.RouteRequestDto;
 
 @RestController
@@ -21,4 +27,21 @@ public class RouteController {
     public ResponseEntity<Object> assignStoreToUser(@RequestBody @Valid RouteRequestDto request) {
         return routeService.assignStoreToUser(request);
     }
+
+    @GetMapping("/{userUuid}/optimized")
+    public ResponseEntity<Object> getOptimizedRoute(@PathVariable("userUuid") UUID userUuid,
+            @RequestParam(name = "lat", required = false) Double latitude,
+            @RequestParam(name = "lng", required = false) Double longitude) {
+        return routeService.getOptimizedRoute(userUuid, latitude, longitude);
+    }
+
+    @GetMapping("/plan")
+    public ResponseEntity<Object> planRoutes() {
+        return routeService.planRoutes();
+    }
+
+    @PostMapping("/plan/apply")
+    public ResponseEntity<Object> applyRoutePlan(@RequestBody @Valid RoutePlanDto plan) {
+        return routeService.applyRoutePlan(plan);
+    }
 }
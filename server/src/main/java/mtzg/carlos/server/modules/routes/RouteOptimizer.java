@@ -0,0 +1,304 @@
+package mtzg.carlos.server.modules.routes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import mtzg.carlos.server.utils.GeoUtils;
+
+/**
+ * Computes a short open visiting path over a set of coordinates. Each worker
+ * repeatedly builds a randomized nearest-neighbour tour and improves it with
+ * 2-opt and Or-opt moves until the time budget runs out; the best path across
+ * all workers wins.
+ */
+@Component
+public class RouteOptimizer {
+
+    private static final double EPSILON = 1e-7;
+    private static final int MAX_OR_OPT_SEGMENT = 3;
+
+    private final long timeBudgetMillis;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public RouteOptimizer(@Value("${routes.optimizer.time-budget-ms:200}") long timeBudgetMillis,
+            @Value("${routes.optimizer.parallelism:0}") int parallelism) {
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "route-optimizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public record Result(int[] order, double distance) {
+    }
+
+    /**
+     * Orders the given {@code [latitude, longitude]} points. When
+     * {@code fixedStart} is true the first point is treated as the starting
+     * position and stays first in the returned order.
+     */
+    public Result optimize(double[][] points, boolean fixedStart) {
+        int n = points.length;
+        double[][] distances = distanceMatrix(points);
+        if (n <= 3) {
+            int[] order = fixedStart || n < 3 ? identity(n) : bestOfSmall(distances);
+            return new Result(order, length(order, distances));
+        }
+
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        List<Future<Result>> futures = new ArrayList<>(parallelism);
+        for (int worker = 0; worker < parallelism; worker++) {
+            long seed = 0x9E3779B97F4A7C15L * (worker + 1);
+            futures.add(executor.submit(() -> search(distances, fixedStart, deadline, seed)));
+        }
+
+        Result best = null;
+        for (Future<Result> future : futures) {
+            try {
+                Result result = future.get();
+                if (best == null || result.distance() < best.distance()) {
+                    best = result;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // A failed worker only loses its restarts; the others still produce a path
+            }
+        }
+        if (best == null) {
+            int[] order = nearestNeighbour(distances, 0, null);
+            best = new Result(order, length(order, distances));
+        }
+        return best;
+    }
+
+    private Result search(double[][] distances, boolean fixedStart, long deadline, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int n = distances.length;
+        int[] best = null;
+        double bestLength = Double.MAX_VALUE;
+        boolean first = true;
+        do {
+            int start = fixedStart ? 0 : random.nextInt(n);
+            int[] order = nearestNeighbour(distances, start, first ? null : random);
+            first = false;
+            improve(order, distances, fixedStart, deadline);
+            double length = length(order, distances);
+            if (length < bestLength - EPSILON) {
+                best = order;
+                bestLength = length;
+            }
+        } while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted());
+        return new Result(best, bestLength);
+    }
+
+    /**
+     * Greedy construction. With a random source each step picks one of the two
+     * closest unvisited points, which diversifies restarts.
+     */
+    static int[] nearestNeighbour(double[][] distances, int start, SplittableRandom random) {
+        int n = distances.length;
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        order[0] = start;
+        visited[start] = true;
+        for (int position = 1; position < n; position++) {
+            int current = order[position - 1];
+            int nearest = -1;
+            int second = -1;
+            for (int candidate = 0; candidate < n; candidate++) {
+                if (visited[candidate]) {
+                    continue;
+                }
+                if (nearest < 0 || distances[current][candidate] < distances[current][nearest]) {
+                    second = nearest;
+                    nearest = candidate;
+                } else if (second < 0 || distances[current][candidate] < distances[current][second]) {
+                    second = candidate;
+                }
+            }
+            int next = random != null && second >= 0 && random.nextInt(4) == 0 ? second : nearest;
+            order[position] = next;
+            visited[next] = true;
+        }
+        return order;
+    }
+
+    static void improve(int[] order, double[][] distances, boolean fixedStart, long deadline) {
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = twoOpt(order, distances, fixedStart, deadline) | orOpt(order, distances, fixedStart, deadline);
+        }
+    }
+
+    /**
+     * Reverses segments of the open path while doing so shortens it.
+     */
+    static boolean twoOpt(int[] order, double[][] distances, boolean fixedStart, long deadline) {
+        int n = order.length;
+        boolean improvedAny = false;
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = false;
+            for (int i = fixedStart ? 1 : 0; i < n - 1; i++) {
+                int before = i > 0 ? order[i - 1] : -1;
+                for (int j = i + 1; j < n; j++) {
+                    int after = j + 1 < n ? order[j + 1] : -1;
+                    double delta = d(distances, before, order[j]) + d(distances, order[i], after)
+                            - d(distances, before, order[i]) - d(distances, order[j], after);
+                    if (delta < -EPSILON) {
+                        reverse(order, i, j);
+                        improved = true;
+                        improvedAny = true;
+                    }
+                }
+            }
+        }
+        return improvedAny;
+    }
+
+    /**
+     * Relocates segments of up to {@link #MAX_OR_OPT_SEGMENT} stops, optionally
+     * reversed, to the position where they add the least distance.
+     */
+    static boolean orOpt(int[] order, double[][] distances, boolean fixedStart, long deadline) {
+        int n = order.length;
+        int first = fixedStart ? 1 : 0;
+        boolean improvedAny = false;
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = false;
+            search: for (int length = 1; length <= MAX_OR_OPT_SEGMENT; length++) {
+                for (int i = first; i + length <= n; i++) {
+                    int j = i + length - 1;
+                    int before = i > 0 ? order[i - 1] : -1;
+                    int after = j + 1 < n ? order[j + 1] : -1;
+                    double removeGain = d(distances, before, order[i]) + d(distances, order[j], after)
+                            - d(distances, before, after);
+                    if (removeGain <= EPSILON) {
+                        continue;
+                    }
+                    for (int k = first - 1; k < n; k++) {
+                        if (k >= i - 1 && k <= j) {
+                            continue;
+                        }
+                        int a = k >= 0 ? order[k] : -1;
+                        int b = k + 1 < n ? order[k + 1] : -1;
+                        double forward = d(distances, a, order[i]) + d(distances, order[j], b) - d(distances, a, b);
+                        double reversed = d(distances, a, order[j]) + d(distances, order[i], b) - d(distances, a, b);
+                        double added = Math.min(forward, reversed);
+                        if (added < removeGain - EPSILON) {
+                            move(order, i, j, k, reversed < forward);
+                            improved = true;
+                            improvedAny = true;
+                            break search;
+                        }
+                    }
+                }
+            }
+        }
+        return improvedAny;
+    }
+
+    static double length(int[] order, double[][] distances) {
+        double total = 0;
+        for (int i = 1; i < order.length; i++) {
+            total += distances[order[i - 1]][order[i]];
+        }
+        return total;
+    }
+
+    static double[][] distanceMatrix(double[][] points) {
+        int n = points.length;
+        double[][] distances = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double distance = GeoUtils.distanceMeters(points[i][0], points[i][1], points[j][0], points[j][1]);
+                distances[i][j] = distance;
+                distances[j][i] = distance;
+            }
+        }
+        return distances;
+    }
+
+    private static double d(double[][] distances, int from, int to) {
+        return from < 0 || to < 0 ? 0 : distances[from][to];
+    }
+
+    private static void reverse(int[] order, int from, int to) {
+        while (from < to) {
+            int tmp = order[from];
+            order[from++] = order[to];
+            order[to--] = tmp;
+        }
+    }
+
+    /**
+     * Moves {@code order[i..j]} so it sits right after the element currently at
+     * index {@code k} ({@code k == -1} means the front of the path).
+     */
+    private static void move(int[] order, int i, int j, int k, boolean reversed) {
+        int length = j - i + 1;
+        int[] segment = new int[length];
+        for (int s = 0; s < length; s++) {
+            segment[s] = reversed ? order[j - s] : order[i + s];
+        }
+        int[] rest = new int[order.length - length];
+        int r = 0;
+        int insertAt = -1;
+        for (int idx = 0; idx < order.length; idx++) {
+            if (idx >= i && idx <= j) {
+                continue;
+            }
+            rest[r++] = order[idx];
+            if (idx == k) {
+                insertAt = r;
+            }
+        }
+        if (k < 0) {
+            insertAt = 0;
+        }
+        System.arraycopy(rest, 0, order, 0, insertAt);
+        System.arraycopy(segment, 0, order, insertAt, length);
+        System.arraycopy(rest, insertAt, order, insertAt + length, rest.length - insertAt);
+    }
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    private static int[] bestOfSmall(double[][] distances) {
+        // For three points the best open path simply skips the longest edge
+        double ab = distances[0][1];
+        double bc = distances[1][2];
+        double ac = distances[0][2];
+        if (ab >= bc && ab >= ac) {
+            return new int[] { 0, 2, 1 };
+        }
+        if (bc >= ab && bc >= ac) {
+            return new int[] { 1, 0, 2 };
+        }
+        return new int[] { 0, 1, 2 };
+    }
+}
@@ -0,0 +1,172 @@
+package mtzg.carlos.server.modules.routes;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import mtzg.carlos.server.utils.GeoUtils;
+
+/**
+ * Partitions store coordinates into {@code k} balanced, geographically compact
+ * groups using capacitated k-means. Restarts with different seeds run in
+ * parallel and the partition with the smallest total distance to its centroids
+ * is kept.
+ */
+@Component
+public class RoutePlanner {
+
+    private static final int MAX_ITERATIONS = 50;
+
+    private final int restarts;
+
+    public RoutePlanner(@Value("${routes.planner.restarts:8}") int restarts) {
+        this.restarts = Math.max(1, restarts);
+    }
+
+    private record Partition(int[] clusters, double cost) {
+    }
+
+    /**
+     * Returns the group index (0..k-1) of each {@code [latitude, longitude]}
+     * point. Group sizes differ by at most one.
+     */
+    public int[] partition(double[][] points, int k) {
+        if (points.length == 0 || k <= 1) {
+            return new int[points.length];
+        }
+        return IntStream.range(0, restarts)
+                .parallel()
+                .mapToObj(restart -> run(points, k, new SplittableRandom(31L * restart + 17)))
+                .min(Comparator.comparingDouble(Partition::cost))
+                .orElseThrow()
+                .clusters();
+    }
+
+    private Partition run(double[][] points, int k, SplittableRandom random) {
+        double[][] centroids = seedCentroids(points, k, random);
+        int[] clusters = null;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            int[] next = assign(points, centroids);
+            boolean converged = Arrays.equals(next, clusters);
+            clusters = next;
+            if (converged) {
+                break;
+            }
+            centroids = recenter(points, clusters, centroids);
+        }
+        double cost = 0;
+        for (int i = 0; i < points.length; i++) {
+            double[] centroid = centroids[clusters[i]];
+            cost += GeoUtils.distanceMeters(points[i][0], points[i][1], centroid[0], centroid[1]);
+        }
+        return new Partition(clusters, cost);
+    }
+
+    /**
+     * k-means++ seeding: each new centroid is drawn with probability
+     * proportional to the squared distance to the closest existing one.
+     */
+    private static double[][] seedCentroids(double[][] points, int k, SplittableRandom random) {
+        int n = points.length;
+        double[][] centroids = new double[k][];
+        centroids[0] = points[random.nextInt(n)].clone();
+        double[] closest = new double[n];
+        Arrays.fill(closest, Double.MAX_VALUE);
+        for (int c = 1; c < k; c++) {
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                double d = GeoUtils.distanceMeters(points[i][0], points[i][1], centroids[c - 1][0],
+                        centroids[c - 1][1]);
+                closest[i] = Math.min(closest[i], d * d);
+                total += closest[i];
+            }
+            int chosen = random.nextInt(n);
+            if (total > 0) {
+                double target = random.nextDouble() * total;
+                for (int i = 0; i < n; i++) {
+                    target -= closest[i];
+                    if (target <= 0) {
+                        chosen = i;
+                        break;
+                    }
+                }
+            }
+            centroids[c] = points[chosen].clone();
+        }
+        return centroids;
+    }
+
+    /**
+     * Capacitated assignment. Points whose best and second-best centroids differ
+     * most are placed first so they are least likely to be pushed to a far group.
+     */
+    private static int[] assign(double[][] points, double[][] centroids) {
+        int n = points.length;
+        int k = centroids.length;
+        double[][] distances = new double[n][];
+        double[] regret = new double[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            double[] row = new double[k];
+            double best = Double.MAX_VALUE;
+            double second = Double.MAX_VALUE;
+            for (int c = 0; c < k; c++) {
+                row[c] = GeoUtils.distanceMeters(points[i][0], points[i][1], centroids[c][0], centroids[c][1]);
+                if (row[c] < best) {
+                    second = best;
+                    best = row[c];
+                } else if (row[c] < second) {
+                    second = row[c];
+                }
+            }
+            distances[i] = row;
+            regret[i] = second - best;
+        });
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(regret[b], regret[a]));
+
+        int capacity = n / k;
+        int oversized = n % k;
+        int[] load = new int[k];
+        int[] clusters = new int[n];
+        for (int i : order) {
+            int chosen = -1;
+            for (int c = 0; c < k; c++) {
+                boolean fits = load[c] < capacity || (load[c] == capacity && oversized > 0);
+                if (fits && (chosen < 0 || distances[i][c] < distances[i][chosen])) {
+                    chosen = c;
+                }
+            }
+            if (load[chosen] == capacity) {
+                oversized--;
+            }
+            load[chosen]++;
+            clusters[i] = chosen;
+        }
+        return clusters;
+    }
+
+    private static double[][] recenter(double[][] points, int[] clusters, double[][] previous) {
+        int k = previous.length;
+        double[][] sums = new double[k][2];
+        int[] counts = new int[k];
+        for (int i = 0; i < points.length; i++) {
+            sums[clusters[i]][0] += points[i][0];
+            sums[clusters[i]][1] += points[i][1];
+            counts[clusters[i]]++;
+        }
+        double[][] centroids = new double[k][];
+        for (int c = 0; c < k; c++) {
+            centroids[c] = counts[c] == 0 ? previous[c]
+                    : new double[] { sums[c][0] / counts[c], sums[c][1] / counts[c] };
+        }
+        return centroids;
+    }
+}
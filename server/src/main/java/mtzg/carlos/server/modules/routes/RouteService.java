@@ -1,28 +1,58 @@
 package mtzg.carlos.server.modules.routes;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.hibernate.SessionFactory;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.config.CacheConfig;
+import mtzg.carlos.server.modules.routes.dto.DriverRoutePlanDto;
+import mtzg.carlos.server.modules.routes.dto.OptimizedRouteDto;
+import mtzg.carlos.server.modules.routes.dto.RoutePlanDto;
 import mtzg.carlos.server.modules.routes.dto.RouteRequestDto;
 import mtzg.carlos.server.modules.stores.IStoreRepository;
 import mtzg.carlos.server.modules.stores.StoreModel;
 import mtzg.carlos.server.modules.users.IUserRepository;
+import mtzg.carlos.server.modules.users.Role;
 import mtzg.carlos.server.modules.users.UserModel;
+import mtzg.carlos.server.utils.TransactionUtils;
 import mtzg.carlos.server.utils.Utilities;
 
 @Service
 @RequiredArgsConstructor
 public class RouteService {
 
+    private static final String USER_STORES_ROLE = UserModel.class.getName() + ".stores";
+
     private final IStoreRepository storeRepository;
     private final IUserRepository userRepository;
+    private final OptimizedRouteService optimizedRouteService;
+    private final RoutePlanner routePlanner;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Transactional
+    @CacheEvict(cacheNames = { CacheConfig.DRIVER_ROUTES, CacheConfig.OPTIMIZED_ROUTES }, allEntries = true)
     public ResponseEntity<Object> assignStoreToUser(RouteRequestDto request) {
         try {
             Optional<UserModel> userOpt = userRepository.findByUuid(request.getUserUuid());
@@ -48,4 +78,167 @@ public class RouteService {
                     "An error occurred while assigning the store to the user.");
         }
     }
+
+    public ResponseEntity<Object> getOptimizedRoute(UUID userUuid, Double latitude, Double longitude) {
+        try {
+            Optional<OptimizedRouteDto> route = optimizedRouteService.getOptimizedRoute(userUuid, latitude, longitude);
+            if (route.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "User not found.");
+            }
+            return Utilities.generateResponse(HttpStatus.OK, "Optimized route computed successfully.", route.get());
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while optimizing the route.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> planRoutes() {
+        try {
+            List<UserModel> drivers = userRepository.findAllWithStores().stream()
+                    .filter(user -> user.getRole() == Role.USER)
+                    .sorted(Comparator.comparing(UserModel::getId))
+                    .toList();
+            if (drivers.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.BAD_REQUEST, "There are no delivery users to plan routes for.");
+            }
+            List<StoreModel> stores = storeRepository.findAll();
+
+            double[][] points = new double[stores.size()][];
+            for (int i = 0; i < stores.size(); i++) {
+                points[i] = new double[] { stores.get(i).getLatitude(), stores.get(i).getLongitude() };
+            }
+            int[] clusters = routePlanner.partition(points, drivers.size());
+
+            List<Set<UUID>> groups = new ArrayList<>();
+            for (int d = 0; d < drivers.size(); d++) {
+                groups.add(new LinkedHashSet<>());
+            }
+            for (int i = 0; i < stores.size(); i++) {
+                groups.get(clusters[i]).add(stores.get(i).getUuid());
+            }
+
+            List<Set<UUID>> current = drivers.stream()
+                    .map(driver -> driver.getStores() == null ? Set.<UUID>of()
+                            : driver.getStores().stream().map(StoreModel::getUuid).collect(Collectors.toSet()))
+                    .toList();
+            int[] groupOfDriver = matchGroupsToDrivers(groups, current);
+
+            List<DriverRoutePlanDto> assignments = new ArrayList<>();
+            int storesMoved = 0;
+            for (int d = 0; d < drivers.size(); d++) {
+                Set<UUID> proposed = groups.get(groupOfDriver[d]);
+                Set<UUID> assigned = current.get(d);
+                List<UUID> added = proposed.stream().filter(uuid -> !assigned.contains(uuid)).toList();
+                List<UUID> removed = assigned.stream().filter(uuid -> !proposed.contains(uuid)).toList();
+                storesMoved += added.size();
+                assignments.add(DriverRoutePlanDto.builder()
+                        .userUuid(drivers.get(d).getUuid())
+                        .userName(drivers.get(d).getName())
+                        .storeUuids(new ArrayList<>(proposed))
+                        .addedStoreUuids(added)
+                        .removedStoreUuids(removed)
+                        .build());
+            }
+
+            RoutePlanDto plan = RoutePlanDto.builder()
+                    .assignments(assignments)
+                    .storesMoved(storesMoved)
+                    .build();
+            return Utilities.generateResponse(HttpStatus.OK, "Route plan computed successfully.", plan);
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while planning routes.");
+        }
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = { CacheConfig.DRIVER_ROUTES, CacheConfig.OPTIMIZED_ROUTES }, allEntries = true)
+    public ResponseEntity<Object> applyRoutePlan(RoutePlanDto plan) {
+        try {
+            Map<UUID, Long> userIds = new HashMap<>();
+            Set<UUID> nonDrivers = new HashSet<>();
+            userRepository.findByUuidIn(plan.getAssignments().stream().map(DriverRoutePlanDto::getUserUuid).toList())
+                    .forEach(user -> {
+                        userIds.put(user.getUuid(), user.getId());
+                        if (user.getRole() != Role.USER) {
+                            nonDrivers.add(user.getUuid());
+                        }
+                    });
+
+            Set<UUID> storeUuids = plan.getAssignments().stream()
+                    .flatMap(assignment -> assignment.getStoreUuids().stream())
+                    .collect(Collectors.toSet());
+            Map<UUID, Long> storeIds = new HashMap<>();
+            storeRepository.findByUuidIn(storeUuids).forEach(store -> storeIds.put(store.getUuid(), store.getId()));
+
+            List<MapSqlParameterSource> rows = new ArrayList<>();
+            for (DriverRoutePlanDto assignment : plan.getAssignments()) {
+                Long userId = userIds.get(assignment.getUserUuid());
+                if (userId == null) {
+                    return Utilities.simpleResponse(HttpStatus.NOT_FOUND,
+                            "User not found: " + assignment.getUserUuid());
+                }
+                if (nonDrivers.contains(assignment.getUserUuid())) {
+                    return Utilities.simpleResponse(HttpStatus.BAD_REQUEST,
+                            "User is not a delivery user: " + assignment.getUserUuid());
+                }
+                for (UUID storeUuid : new LinkedHashSet<>(assignment.getStoreUuids())) {
+                    Long storeId = storeIds.get(storeUuid);
+                    if (storeId == null) {
+                        return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Store not found: " + storeUuid);
+                    }
+                    rows.add(new MapSqlParameterSource()
+                            .addValue("userId", userId)
+                            .addValue("storeId", storeId));
+                }
+            }
+
+            jdbcTemplate.update("DELETE FROM routes WHERE user_id IN (:userIds)",
+                    new MapSqlParameterSource("userIds", userIds.values()));
+            jdbcTemplate.batchUpdate("INSERT INTO routes (user_id, store_id) VALUES (:userId, :storeId)",
+                    rows.toArray(MapSqlParameterSource[]::new));
+            // The routes table was written behind Hibernate's back, so the cached collections are stale
+            TransactionUtils.afterCommit(() -> userIds.values().forEach(userId -> entityManagerFactory
+                    .unwrap(SessionFactory.class).getCache().evictCollectionData(USER_STORES_ROLE, userId)));
+            return Utilities.simpleResponse(HttpStatus.OK, "Route plan applied successfully.");
+        } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while applying the route plan.");
+        }
+    }
+
+    /**
+     * Pairs each driver with the proposed group that shares the most stores
+     * with their current route, so applying the plan moves as few stores as
+     * possible.
+     */
+    private int[] matchGroupsToDrivers(List<Set<UUID>> groups, List<Set<UUID>> current) {
+        int size = groups.size();
+        List<int[]> pairs = new ArrayList<>(size * size);
+        for (int g = 0; g < size; g++) {
+            for (int d = 0; d < size; d++) {
+                int overlap = 0;
+                for (UUID uuid : groups.get(g)) {
+                    if (current.get(d).contains(uuid)) {
+                        overlap++;
+                    }
+                }
+                pairs.add(new int[] { overlap, g, d });
+            }
+        }
+        pairs.sort((a, b) -> Integer.compare(b[0], a[0]));
+
+        int[] groupOfDriver = new int[size];
+        Arrays.fill(groupOfDriver, -1);
+        boolean[] groupTaken = new boolean[size];
+        for (int[] pair : pairs) {
+            if (!groupTaken[pair[1]] && groupOfDriver[pair[2]] < 0) {
+                groupTaken[pair[1]] = true;
+                groupOfDriver[pair[2]] = pair[1];
+            }
+        }
+        return groupOfDriver;
+    }
 }
@@ -0,0 +1,31 @@
+package mtzg.carlos.server.modules.routes.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DriverRoutePlanDto {
+
+    @NotNull(message = "User UUID cannot be null")
+    private UUID userUuid;
+
+    private String userName;
+
+    @NotNull(message = "Store UUIDs cannot be null")
+    private List<UUID> storeUuids;
+
+    private List<UUID> addedStoreUuids;
+
+    private List<UUID> removedStoreUuids;
+}
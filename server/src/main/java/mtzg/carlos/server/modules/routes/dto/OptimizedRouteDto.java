@@ -0,0 +1,23 @@
+package mtzg.carlos.server.modules.routes.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OptimizedRouteDto {
+
+    private UUID userUuid;
+    private double totalDistance;
+    private List<StoreResponseDto> stops;
+}
@@ -0,0 +1,26 @@
+package mtzg.carlos.server.modules.routes.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoutePlanDto {
+
+    @NotNull(message = "Assignments cannot be null")
+    @NotEmpty(message = "Assignments list cannot be empty")
+    private List<@Valid DriverRoutePlanDto> assignments;
+
+    private int storesMoved;
+}
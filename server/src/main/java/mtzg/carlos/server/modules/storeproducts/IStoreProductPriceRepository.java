@@ -0,0 +1,27 @@
+package mtzg.carlos.server.modules.storeproducts;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IStoreProductPriceRepository extends JpaRepository<StoreProductPriceModel, Long> {
+
+    Optional<StoreProductPriceModel> findByStoreIdAndProductId(Long storeId, Long productId);
+
+    List<StoreProductPriceModel> findByUpdatedAtAfter(LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE StoreProductPriceModel p SET p.priceOverride = NULL, p.updatedAt = CURRENT_TIMESTAMP WHERE p.storeId = :storeId")
+    int clearByStoreId(@Param("storeId") Long storeId);
+
+    @Modifying
+    @Query("UPDATE StoreProductPriceModel p SET p.priceOverride = NULL, p.updatedAt = CURRENT_TIMESTAMP WHERE p.productId = :productId")
+    int clearByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,95 @@
+package mtzg.carlos.server.modules.storeproducts;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.modules.products.ProductModel;
+import mtzg.carlos.server.modules.products.ProductPriceIndex;
+
+/**
+ * Resolves the effective price of a product at a store without touching the
+ * database: the store override if one exists, otherwise the product price in
+ * effect at that instant, otherwise its current base price. Overrides live in a
+ * single hash map keyed by the packed (store id, product id) pair and are
+ * refreshed incrementally from {@code updated_at}. The watermark is the latest
+ * {@code updated_at} read back, which the database sets, so it never mixes this
+ * node's clock with another writer's.
+ */
+@Component
+@RequiredArgsConstructor
+public class StorePricingEngine {
+
+    // Rows stamped before a concurrent transaction committed are caught by re-reading this window
+    private static final long REFRESH_OVERLAP_SECONDS = 5;
+
+    private final IStoreProductPriceRepository storeProductPriceRepository;
+    private final ProductPriceIndex productPriceIndex;
+
+    private final Map<Long, Double> overrides = new ConcurrentHashMap<>();
+    private volatile LocalDateTime watermark = LocalDateTime.MIN;
+
+    // Built before the startup warm-up, which reads through it
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.refresh-interval-ms:30000}", initialDelayString = "${pricing.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        LocalDateTime since = watermark.equals(LocalDateTime.MIN) ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                : watermark.minusSeconds(REFRESH_OVERLAP_SECONDS);
+        List<StoreProductPriceModel> changed = storeProductPriceRepository.findByUpdatedAtAfter(since);
+        LocalDateTime latest = watermark;
+        for (StoreProductPriceModel row : changed) {
+            apply(row.getStoreId(), row.getProductId(), row.getPriceOverride());
+            if (row.getUpdatedAt().isAfter(latest)) {
+                latest = row.getUpdatedAt();
+            }
+        }
+        watermark = latest;
+    }
+
+    public void apply(Long storeId, Long productId, Double priceOverride) {
+        if (priceOverride == null) {
+            overrides.remove(key(storeId, productId));
+        } else {
+            overrides.put(key(storeId, productId), priceOverride);
+        }
+    }
+
+    public void clearStore(Long storeId) {
+        overrides.keySet().removeIf(key -> (key >>> 32) == storeId);
+    }
+
+    public void clearProduct(Long productId) {
+        overrides.keySet().removeIf(key -> (key & 0xffffffffL) == productId);
+    }
+
+    public Double overrideFor(Long storeId, Long productId) {
+        return overrides.get(key(storeId, productId));
+    }
+
+    public double priceFor(Long storeId, ProductModel product, LocalDateTime at) {
+        Double override = overrides.get(key(storeId, product.getId()));
+        if (override != null) {
+            return override;
+        }
+        Double price = productPriceIndex.priceAt(product.getId(), at);
+        return price != null ? price : product.getBasePrice();
+    }
+
+    private static long key(Long storeId, Long productId) {
+        return (storeId << 32) | (productId & 0xffffffffL);
+    }
+}
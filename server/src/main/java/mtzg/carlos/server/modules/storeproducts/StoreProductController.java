@@ -2,6 +2,7 @@ package mtzg.carlos.server.modules.storeproducts;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import mtzg.carlos.server.modules.storeproducts.dto.AssignProductsToStoreRequestDto;
+import mtzg.carlos.server.modules.storeproducts.dto.StoreProductPriceDto;
 
 @RestController
 @RequestMapping("/api/v1/store-products")
@@ -21,4 +23,9 @@ public class StoreProductController {
     public ResponseEntity<Object> assignProductsToStore(@RequestBody @Valid AssignProductsToStoreRequestDto request) {
         return storeProductsService.assignProductsToStore(request);
     }
+
+    @PutMapping("/price")
+    public ResponseEntity<Object> setStorePrice(@RequestBody @Valid StoreProductPriceDto request) {
+        return storeProductsService.setStorePrice(request);
+    }
 }
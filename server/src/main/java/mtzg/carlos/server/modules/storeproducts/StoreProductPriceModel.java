@@ -0,0 +1,54 @@
+package mtzg.carlos.server.modules.storeproducts;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.SourceType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Store-specific price for a product assigned through {@code store_products}.
+ * A null price means the override was cleared; the row is kept so other nodes
+ * pick up the change on their next incremental refresh. {@code updated_at} is
+ * set by the database on every write so that all nodes share one clock.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "store_product_prices", uniqueConstraints = @UniqueConstraint(name = "uk_store_product_prices", columnNames = {
+        "store_id", "product_id" }), indexes = @Index(name = "idx_store_product_prices_updated", columnList = "updated_at"))
+public class StoreProductPriceModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "price_override", nullable = true)
+    private Double priceOverride;
+
+    @CurrentTimestamp(source = SourceType.DB)
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
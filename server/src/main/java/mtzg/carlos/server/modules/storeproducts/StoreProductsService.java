@@ -4,17 +4,21 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.config.CacheConfig;
 import mtzg.carlos.server.modules.products.IProductRepository;
 import mtzg.carlos.server.modules.products.ProductModel;
 import mtzg.carlos.server.modules.storeproducts.dto.AssignProductsToStoreRequestDto;
+import mtzg.carlos.server.modules.storeproducts.dto.StoreProductPriceDto;
 import mtzg.carlos.server.modules.stores.IStoreRepository;
 import mtzg.carlos.server.modules.stores.StoreModel;
+import mtzg.carlos.server.utils.TransactionUtils;
 import mtzg.carlos.server.utils.Utilities;
 
 @Service
@@ -23,8 +27,11 @@ public class StoreProductsService {
 
     private final IProductRepository productRepository;
     private final IStoreRepository storeRepository;
+    private final IStoreProductPriceRepository storeProductPriceRepository;
+    private final StorePricingEngine pricingEngine;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DRIVER_ROUTES, allEntries = true)
     public ResponseEntity<Object> assignProductsToStore(AssignProductsToStoreRequestDto request) {
         try {
             Optional<StoreModel> storeOpt = storeRepository.findByUuid(request.getStoreUuid());
@@ -66,4 +73,41 @@ public class StoreProductsService {
                     "An error occurred while assigning products to store");
         }
     }
+
+    @Transactional
+    public ResponseEntity<Object> setStorePrice(StoreProductPriceDto request) {
+        try {
+            Optional<StoreModel> storeOpt = storeRepository.findByUuid(request.getStoreUuid());
+            if (storeOpt.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Store not found");
+            }
+            StoreModel store = storeOpt.get();
+            Optional<ProductModel> productOpt = store.getProducts() == null ? Optional.empty()
+                    : store.getProducts().stream()
+                            .filter(product -> product.getUuid().equals(request.getProductUuid()))
+                            .findFirst();
+            if (productOpt.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Product is not assigned to this store");
+            }
+            ProductModel product = productOpt.get();
+
+            StoreProductPriceModel storePrice = storeProductPriceRepository
+                    .findByStoreIdAndProductId(store.getId(), product.getId())
+                    .orElseGet(() -> StoreProductPriceModel.builder()
+                            .storeId(store.getId())
+                            .productId(product.getId())
+                            .build());
+            storePrice.setPriceOverride(request.getPrice());
+            storeProductPriceRepository.save(storePrice);
+            TransactionUtils.afterCommit(
+                    () -> pricingEngine.apply(store.getId(), product.getId(), request.getPrice()));
+
+            return Utilities.simpleResponse(HttpStatus.OK, request.getPrice() == null
+                    ? "Store price cleared successfully"
+                    : "Store price updated successfully");
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while updating the store price");
+        }
+    }
 }
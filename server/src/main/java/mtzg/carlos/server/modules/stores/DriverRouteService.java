@@ -0,0 +1,60 @@
+package mtzg.carlos.server.modules.stores;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.config.CacheConfig;
+import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
+import mtzg.carlos.server.modules.users.IUserRepository;
+import mtzg.carlos.server.utils.ReadReplicaRouter;
+
+@Service
+@RequiredArgsConstructor
+public class DriverRouteService {
+
+    private final IStoreRepository storeRepository;
+    private final IUserRepository userRepository;
+
+    /**
+     * Loads the stores assigned to a driver in a single query. An empty result
+     * means the driver does not exist; unknown drivers are not cached. Reads
+     * from the primary, since the result stays cached until the next eviction.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouter.PRIMARY)
+    @Cacheable(cacheNames = CacheConfig.DRIVER_ROUTES, key = "#driverUuid + ':' + #includeProducts", unless = "#result == null")
+    public Optional<List<StoreResponseDto>> getRoute(UUID driverUuid, boolean includeProducts) {
+        List<StoreResponseDto> route = includeProducts ? loadRouteWithProducts(driverUuid) : loadRoute(driverUuid);
+        if (route.isEmpty() && !userRepository.existsByUuid(driverUuid)) {
+            return Optional.empty();
+        }
+        return Optional.of(route);
+    }
+
+    private List<StoreResponseDto> loadRouteWithProducts(UUID driverUuid) {
+        return storeRepository.findRouteWithProductsByDriverUuid(driverUuid).stream()
+                .map(StoreMapper::toDtoWithProducts)
+                .toList();
+    }
+
+    private List<StoreResponseDto> loadRoute(UUID driverUuid) {
+        Map<StoreModel, List<UUID>> route = new LinkedHashMap<>();
+        for (Object[] row : storeRepository.findRouteProductUuidsByDriverUuid(driverUuid)) {
+            List<UUID> productUuids = route.computeIfAbsent((StoreModel) row[0], store -> new ArrayList<>());
+            if (row[1] != null) {
+                productUuids.add((UUID) row[1]);
+            }
+        }
+        return route.entrySet().stream()
+                .map(entry -> StoreMapper.toDto(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
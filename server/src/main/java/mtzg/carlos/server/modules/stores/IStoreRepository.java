@@ -1,24 +1,52 @@
 package mtzg.carlos.server.modules.stores;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 
-import mtzg.carlos.server.modules.users.UserModel;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import mtzg.carlos.server.utils.NaturalIdRepository;
+
 @Repository
-public interface IStoreRepository extends JpaRepository<StoreModel, Long> {
+public interface IStoreRepository extends NaturalIdRepository<StoreModel, Long> {
 
-    Optional<StoreModel> findByUuid(UUID uuid);
+    // Resolved through the natural-id cache instead of a derived query
+    default Optional<StoreModel> findByUuid(UUID uuid) {
+        return findBySimpleNaturalId(uuid);
+    }
 
-    Optional<StoreModel> findByNameIgnoreCase(String name);
+    List<StoreModel> findByUuidIn(Collection<UUID> uuids);
 
     @Query("SELECT s FROM StoreModel s LEFT JOIN FETCH s.products")
     List<StoreModel> findAllWithProducts();
 
-    List<StoreModel> findByUsers(Set<UserModel> users);
+    // Returns [store id, product uuid] pairs so listings can avoid fetching full product rows
+    @Query("SELECT s.id, p.uuid FROM StoreModel s JOIN s.products p")
+    List<Object[]> findAllProductUuids();
+
+    // Returns [uuid, name, address, latitude, longitude, qr code] rows for the spatial index
+    @Query("SELECT s.uuid, s.name, s.address, s.latitude, s.longitude, s.qrCode FROM StoreModel s")
+    List<Object[]> findAllLocations();
+
+    @Query("SELECT DISTINCT s FROM UserModel u JOIN u.stores s LEFT JOIN FETCH s.products WHERE u.uuid = :uuid")
+    List<StoreModel> findRouteWithProductsByDriverUuid(@Param("uuid") UUID uuid);
+
+    // Returns [store, product uuid] rows; product uuid is null for stores without products
+    @Query("SELECT s, p.uuid FROM UserModel u JOIN u.stores s LEFT JOIN s.products p WHERE u.uuid = :uuid")
+    List<Object[]> findRouteProductUuidsByDriverUuid(@Param("uuid") UUID uuid);
+
+    /**
+     * Serializes inventory counts of a store. Visits don't take it: a visit
+     * comes before a count when its id is at most the count's
+     * {@code baseline_visit_id}, which is how levels are derived.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StoreModel s WHERE s.id = :id")
+    Optional<StoreModel> lockForInventoryCount(@Param("id") Long id);
 }
@@ -1,5 +1,6 @@
 package mtzg.carlos.server.modules.stores;
 
+import java.util.Arrays;
 import java.util.UUID;
 
 import org.springframework.core.io.Resource;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
@@ -27,8 +29,18 @@ public class StoreController {
     private final StoreService storeService;
 
     @GetMapping("")
-    public ResponseEntity<Object> findAllStores() {
-        return storeService.getAllStores();
+    public ResponseEntity<Object> findAllStores(@RequestParam(name = "include", required = false) String include) {
+        return storeService.getAllStores(includesProducts(include));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<Object> findNearbyStores(
+            @RequestParam("lat") double latitude,
+            @RequestParam("lng") double longitude,
+            @RequestParam(name = "radius", defaultValue = "5000") double radius,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "userUuid", required = false) UUID userUuid) {
+        return storeService.findNearby(latitude, longitude, radius, limit, userUuid);
     }
 
     @GetMapping("/{uuid}")
@@ -52,12 +64,17 @@ public class StoreController {
     }
 
     @GetMapping("/delivery-man/{uuid}")
-    public ResponseEntity<Object> findByDeliveryMan(@PathVariable("uuid") UUID uuid){
-        return storeService.findByDeliveryMan(uuid);
+    public ResponseEntity<Object> findByDeliveryMan(@PathVariable("uuid") UUID uuid,
+            @RequestParam(name = "include", required = false) String include) {
+        return storeService.findByDeliveryMan(uuid, includesProducts(include));
     }
 
     @GetMapping(value = "/{uuid}/qr", produces = MediaType.IMAGE_PNG_VALUE)
     public ResponseEntity<Resource> getStoreQr(@PathVariable("uuid") UUID uuid) {
         return storeService.getStoreQr(uuid);
     }
+
+    private boolean includesProducts(String include) {
+        return include != null && Arrays.asList(include.split(",")).contains("products");
+    }
 }
@@ -0,0 +1,57 @@
+package mtzg.carlos.server.modules.stores;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import mtzg.carlos.server.modules.products.dto.ProductResponseDto;
+import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
+
+public class StoreMapper {
+    private StoreMapper() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static StoreResponseDto toDto(StoreModel store, List<UUID> productUuids) {
+        return StoreResponseDto.builder()
+                .uuid(store.getUuid())
+                .name(store.getName())
+                .address(store.getAddress())
+                .latitude(store.getLatitude())
+                .longitude(store.getLongitude())
+                .qrCode(store.getQrCode())
+                .productUuids(productUuids)
+                .build();
+    }
+
+    public static StoreResponseDto toDtoWithProducts(StoreModel store) {
+        return StoreResponseDto.builder()
+                .uuid(store.getUuid())
+                .name(store.getName())
+                .address(store.getAddress())
+                .latitude(store.getLatitude())
+                .longitude(store.getLongitude())
+                .qrCode(store.getQrCode())
+                .products(
+                        store.getProducts() == null ? List.of()
+                                : store.getProducts().stream()
+                                        .map(product -> ProductResponseDto.builder()
+                                                .uuid(product.getUuid())
+                                                .name(product.getName())
+                                                .description(product.getDescription())
+                                                .basePrice(product.getBasePrice())
+                                                .build())
+                                        .toList())
+                .build();
+    }
+
+    public static Map<Long, List<UUID>> groupProductUuids(List<Object[]> rows) {
+        Map<Long, List<UUID>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((UUID) row[1]);
+        }
+        return grouped;
+    }
+}
@@ -3,6 +3,11 @@ package mtzg.carlos.server.modules.stores;
 import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -11,7 +16,10 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -19,9 +27,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import mtzg.carlos.server.config.HibernateCacheConfig;
 import mtzg.carlos.server.modules.products.ProductModel;
 import mtzg.carlos.server.modules.users.UserModel;
 import mtzg.carlos.server.modules.visits.VisitModel;
+import mtzg.carlos.server.utils.TextUtils;
 
 @Getter
 @Setter
@@ -31,19 +41,28 @@ import mtzg.carlos.server.modules.visits.VisitModel;
 @ToString(exclude = { "products", "users", "visits" })
 @EqualsAndHashCode(exclude = { "products", "users", "visits" })
 @Entity
-@Table(name = "stores")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.STORES)
+@NaturalIdCache(region = HibernateCacheConfig.STORE_NATURAL_IDS)
+@Table(name = "stores", uniqueConstraints = @UniqueConstraint(name = StoreModel.NORMALIZED_NAME_CONSTRAINT, columnNames = "normalized_name"))
 public class StoreModel {
 
+    public static final String NORMALIZED_NAME_CONSTRAINT = "uk_stores_normalized_name";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(name = "uuid", nullable = false, unique = true)
     private UUID uuid;
 
     @Column(name = "name", nullable = false)
     private String name;
 
+    // Derived from the name on every write; unique, so names that differ only in case, accents or spacing collide
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName;
+
     @Column(name = "address", nullable = false)
     private String address;
 
@@ -56,6 +75,7 @@ public class StoreModel {
     @Column(name = "qr_code", nullable = true)
     private String qrCode;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.STORE_PRODUCTS)
     @ManyToMany(mappedBy = "stores", fetch = FetchType.LAZY)
     private Set<ProductModel> products;
 
@@ -64,4 +84,10 @@ public class StoreModel {
 
     @OneToMany(mappedBy = "store", fetch = FetchType.LAZY)
     private Set<VisitModel> visits;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        normalizedName = TextUtils.normalizeName(name);
+    }
 }
@@ -3,14 +3,17 @@ package mtzg.carlos.server.modules.stores;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -18,17 +21,27 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.config.CacheConfig;
+import mtzg.carlos.server.modules.inventory.IStoreInventoryRepository;
+import mtzg.carlos.server.modules.inventory.InventoryCounters;
 import mtzg.carlos.server.modules.products.IProductRepository;
 import mtzg.carlos.server.modules.products.ProductModel;
-import mtzg.carlos.server.modules.products.dto.ProductResponseDto;
+import mtzg.carlos.server.modules.storeproducts.IStoreProductPriceRepository;
+import mtzg.carlos.server.modules.storeproducts.StorePricingEngine;
 import mtzg.carlos.server.modules.stores.dto.StoreRegisterDto;
 import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
 import mtzg.carlos.server.modules.stores.dto.StoreUpdateDto;
 import mtzg.carlos.server.modules.users.IUserRepository;
 import mtzg.carlos.server.modules.users.UserModel;
+import mtzg.carlos.server.utils.PersistenceUtils;
 import mtzg.carlos.server.utils.QrUtils;
+import mtzg.carlos.server.utils.TracingUtils;
+import mtzg.carlos.server.utils.TransactionUtils;
+import mtzg.carlos.server.utils.UuidUtils;
 import mtzg.carlos.server.utils.Utilities;
 
 @Service
@@ -38,34 +51,34 @@ public class StoreService {
     private final IStoreRepository storeRepository;
     private final IUserRepository userRepository;
     private final IProductRepository productRepository;
+    private final DriverRouteService driverRouteService;
+    private final StoreSpatialIndex spatialIndex;
+    private final IStoreProductPriceRepository storeProductPriceRepository;
+    private final StorePricingEngine pricingEngine;
+    private final IStoreInventoryRepository inventoryRepository;
+    private final InventoryCounters inventoryCounters;
+    private final ObservationRegistry observationRegistry;
+
+    private static final double MAX_NEARBY_RADIUS_METERS = 100_000d;
+    private static final int MAX_NEARBY_LIMIT = 200;
 
     @Value("${qr.content.path}")
     private String qrContentPath;
 
     @Transactional(readOnly = true)
-    public ResponseEntity<Object> getAllStores() {
+    public ResponseEntity<Object> getAllStores(boolean includeProducts) {
         try {
-            List<StoreModel> stores = storeRepository.findAllWithProducts();
-            List<StoreResponseDto> storesDto = stores.stream()
-                    .map(store -> StoreResponseDto.builder()
-                            .uuid(store.getUuid())
-                            .name(store.getName())
-                            .address(store.getAddress())
-                            .latitude(store.getLatitude())
-                            .longitude(store.getLongitude())
-                            .qrCode(store.getQrCode())
-                            .products(
-                                    store.getProducts() == null ? List.of()
-                                            : store.getProducts().stream()
-                                                    .map(product -> ProductResponseDto.builder()
-                                                            .uuid(product.getUuid())
-                                                            .name(product.getName())
-                                                            .description(product.getDescription())
-                                                            .basePrice(product.getBasePrice())
-                                                            .build())
-                                                    .toList())
-                            .build())
-                    .toList();
+            List<StoreResponseDto> storesDto;
+            if (includeProducts) {
+                storesDto = storeRepository.findAllWithProducts().stream()
+                        .map(StoreMapper::toDtoWithProducts)
+                        .toList();
+            } else {
+                Map<Long, List<UUID>> productUuids = StoreMapper.groupProductUuids(storeRepository.findAllProductUuids());
+                storesDto = storeRepository.findAll().stream()
+                        .map(store -> StoreMapper.toDto(store, productUuids.getOrDefault(store.getId(), List.of())))
+                        .toList();
+            }
             return Utilities.generateResponse(HttpStatus.OK, "Stores retrieved successfully", storesDto);
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
@@ -80,25 +93,7 @@ public class StoreService {
             if (storeOpt.isEmpty()) {
                 return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Store not found");
             }
-            StoreModel store = storeOpt.get();
-            StoreResponseDto storeDto = StoreResponseDto.builder()
-                    .uuid(store.getUuid())
-                    .name(store.getName())
-                    .address(store.getAddress())
-                    .latitude(store.getLatitude())
-                    .longitude(store.getLongitude())
-                    .qrCode(store.getQrCode())
-                    .products(
-                            store.getProducts() == null ? List.of()
-                                    : store.getProducts().stream()
-                                            .map(product -> ProductResponseDto.builder()
-                                                    .uuid(product.getUuid())
-                                                    .name(product.getName())
-                                                    .description(product.getDescription())
-                                                    .basePrice(product.getBasePrice())
-                                                    .build())
-                                            .toList())
-                    .build();
+            StoreResponseDto storeDto = StoreMapper.toDtoWithProducts(storeOpt.get());
             return Utilities.generateResponse(HttpStatus.OK, "Store retrieved successfully", storeDto);
 
         } catch (Exception e) {
@@ -110,11 +105,7 @@ public class StoreService {
     @Transactional
     public ResponseEntity<Object> registerStore(StoreRegisterDto dto) {
         try {
-            if (storeRepository.findByNameIgnoreCase(dto.getName()).isPresent()) {
-                return Utilities.simpleResponse(HttpStatus.CONFLICT, "Store with this name already exists");
-            }
-
-            UUID uuid = UUID.randomUUID();
+            UUID uuid = UuidUtils.v7();
             StoreModel store = StoreModel.builder()
                     .uuid(uuid)
                     .name(dto.getName())
@@ -123,13 +114,22 @@ public class StoreService {
                     .longitude(dto.getLongitude())
                     .build();
 
-            storeRepository.save(store);
+            TracingUtils.stage(observationRegistry, "store.insert", () -> storeRepository.saveAndFlush(store));
 
-            String qrPath = generateQrForStore(store.getUuid());
+            String qrPath = TracingUtils.stage(observationRegistry, "store.generate-qr",
+                    () -> generateQrForStore(store.getUuid()));
             store.setQrCode(qrPath);
-            storeRepository.save(store);
+            TracingUtils.stage(observationRegistry, "store.save-qr-path", () -> storeRepository.saveAndFlush(store));
+            TransactionUtils.afterCommit(() -> spatialIndex.put(store));
 
             return Utilities.simpleResponse(HttpStatus.CREATED, "Store registered successfully");
+        } catch (DataIntegrityViolationException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            if (PersistenceUtils.violates(e, StoreModel.NORMALIZED_NAME_CONSTRAINT)) {
+                return Utilities.simpleResponse(HttpStatus.CONFLICT, "Store with this name already exists");
+            }
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while registering the store: " + e.getMessage());
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
                     "An error occurred while registering the store: " + e.getMessage());
@@ -137,6 +137,7 @@ public class StoreService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = { CacheConfig.DRIVER_ROUTES, CacheConfig.OPTIMIZED_ROUTES }, allEntries = true)
     public ResponseEntity<Object> updateStore(UUID uuid, StoreUpdateDto dto) {
         try {
             Optional<StoreModel> storeOpt = storeRepository.findByUuid(uuid);
@@ -145,11 +146,6 @@ public class StoreService {
             }
             StoreModel store = storeOpt.get();
             if (dto.getName() != null && !dto.getName().isBlank()) {
-                Optional<StoreModel> existingStoreOpt = storeRepository.findByNameIgnoreCase(dto.getName());
-                if (existingStoreOpt.isPresent() && !existingStoreOpt.get().getUuid().equals(uuid)) {
-                    return Utilities.simpleResponse(HttpStatus.CONFLICT,
-                            "Another store with this name already exists");
-                }
                 store.setName(dto.getName());
             }
             if (dto.getAddress() != null && !dto.getAddress().isBlank()) {
@@ -161,8 +157,16 @@ public class StoreService {
             if (dto.getLongitude() != null) {
                 store.setLongitude(dto.getLongitude());
             }
-            storeRepository.save(store);
+            storeRepository.saveAndFlush(store);
+            TransactionUtils.afterCommit(() -> spatialIndex.put(store));
             return Utilities.simpleResponse(HttpStatus.OK, "Store updated successfully");
+        } catch (DataIntegrityViolationException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            if (PersistenceUtils.violates(e, StoreModel.NORMALIZED_NAME_CONSTRAINT)) {
+                return Utilities.simpleResponse(HttpStatus.CONFLICT, "Another store with this name already exists");
+            }
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while updating the store.");
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
                     "An error occurred while updating the store.");
@@ -170,6 +174,7 @@ public class StoreService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = { CacheConfig.DRIVER_ROUTES, CacheConfig.OPTIMIZED_ROUTES }, allEntries = true)
     public ResponseEntity<Object> deleteStore(UUID uuid) {
         try {
             Optional<StoreModel> storeOpt = storeRepository.findByUuid(uuid);
@@ -205,6 +210,14 @@ public class StoreService {
 
             storeRepository.save(store);
             storeRepository.delete(store);
+            Long storeId = store.getId();
+            storeProductPriceRepository.clearByStoreId(storeId);
+            inventoryRepository.deleteByStoreId(storeId);
+            TransactionUtils.afterCommit(() -> {
+                spatialIndex.remove(uuid);
+                pricingEngine.clearStore(storeId);
+                inventoryCounters.removeStore(storeId);
+            });
             return Utilities.simpleResponse(HttpStatus.OK, "Store deleted successfully");
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
@@ -212,40 +225,51 @@ public class StoreService {
         }
     }
 
-    public ResponseEntity<Object> findByDeliveryMan(UUID uuid) {
+    public ResponseEntity<Object> findByDeliveryMan(UUID uuid, boolean includeProducts) {
         try {
-            Optional<UserModel> user = userRepository.findByUuid(uuid);
-            if (user.isEmpty()) {
+            Optional<List<StoreResponseDto>> route = driverRouteService.getRoute(uuid, includeProducts);
+            if (route.isEmpty()) {
                 return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "cant find the user with the uuid: " + uuid);
             }
+            return Utilities.generateResponse(HttpStatus.OK, "data fetched successfully", route.get());
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while fetching stores for the user: " + e.getMessage());
+        }
+    }
+
+    public ResponseEntity<Object> findNearby(double latitude, double longitude, double radius, int limit,
+            UUID userUuid) {
+        try {
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                return Utilities.simpleResponse(HttpStatus.BAD_REQUEST, "Invalid coordinates");
+            }
+            if (radius <= 0 || radius > MAX_NEARBY_RADIUS_METERS) {
+                return Utilities.simpleResponse(HttpStatus.BAD_REQUEST,
+                        "Radius must be between 1 and " + (int) MAX_NEARBY_RADIUS_METERS + " meters");
+            }
+            if (limit < 1 || limit > MAX_NEARBY_LIMIT) {
+                return Utilities.simpleResponse(HttpStatus.BAD_REQUEST,
+                        "Limit must be between 1 and " + MAX_NEARBY_LIMIT);
+            }
 
-            Set<UserModel> userModels = new HashSet<>();
-            userModels.add(user.get());
+            Set<UUID> candidates = null;
+            if (userUuid != null) {
+                Optional<List<StoreResponseDto>> route = driverRouteService.getRoute(userUuid, false);
+                if (route.isEmpty()) {
+                    return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "User not found");
+                }
+                candidates = route.get().stream().map(StoreResponseDto::getUuid).collect(Collectors.toSet());
+            }
 
-            List<StoreModel> stores = storeRepository.findByUsers(userModels);
-            List<StoreResponseDto> response = stores.stream()
-                    .map(store -> StoreResponseDto.builder()
-                            .uuid(store.getUuid())
-                            .name(store.getName())
-                            .address(store.getAddress())
-                            .latitude(store.getLatitude())
-                            .longitude(store.getLongitude())
-                            .qrCode(store.getQrCode())
-                            .products(
-                                    store.getProducts().stream()
-                                            .map(p -> ProductResponseDto.builder()
-                                                    .uuid(p.getUuid())
-                                                    .name(p.getName())
-                                                    .description(p.getDescription())
-                                                    .basePrice(p.getBasePrice())
-                                                    .build())
-                                            .toList())
-                            .build())
+            List<StoreResponseDto> response = spatialIndex.nearby(latitude, longitude, radius, limit, candidates)
+                    .stream()
+                    .map(match -> match.location().toDto(match.distance()))
                     .toList();
-            return Utilities.generateResponse(HttpStatus.OK, "data fetched successfully", response);
+            return Utilities.generateResponse(HttpStatus.OK, "Nearby stores retrieved successfully", response);
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "An error occurred while fetching stores for the user: " + e.getMessage());
+                    "An error occurred while searching nearby stores.");
         }
     }
 
@@ -290,4 +314,5 @@ public class StoreService {
             throw new RuntimeException("Failed to generate QR code for store", e);
         }
     }
+
 }
@@ -0,0 +1,197 @@
+package mtzg.carlos.server.modules.stores;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
+import mtzg.carlos.server.utils.GeoUtils;
+import mtzg.carlos.server.utils.ReadReplicaRouter;
+
+/**
+ * In-memory uniform grid over store coordinates. Each cell spans
+ * {@link #CELL_DEGREES} degrees, so a radius query only visits the cells that
+ * overlap the search box instead of every store.
+ *
+ * Writes made through this node are applied once they commit. Every store is
+ * re-read every {@code stores.index.refresh-interval-ms}, which brings in
+ * stores created, moved or deleted through other nodes; the refresh only
+ * touches the entries that differ, so readers never see a half-built index.
+ * Writers are serialized so a store's move can't leave a copy in its old cell.
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreSpatialIndex {
+
+    private static final double CELL_DEGREES = 0.05;
+
+    private final IStoreRepository storeRepository;
+
+    private final Map<Long, Map<UUID, StoreLocation>> cells = new ConcurrentHashMap<>();
+    private final Map<UUID, StoreLocation> locations = new ConcurrentHashMap<>();
+
+    public record StoreLocation(UUID uuid, String name, String address, double latitude, double longitude,
+            String qrCode) {
+
+        StoreResponseDto toDto(double distance) {
+            return StoreResponseDto.builder()
+                    .uuid(uuid)
+                    .name(name)
+                    .address(address)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .qrCode(qrCode)
+                    .distance(distance)
+                    .build();
+        }
+    }
+
+    public record Match(StoreLocation location, double distance) {
+    }
+
+    // Built before the startup warm-up, which reads through it. Read from the primary and under the
+    // writers' lock, so a store put after its commit is never replaced by an older copy
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Scheduled(fixedDelayString = "${stores.index.refresh-interval-ms:60000}", initialDelayString = "${stores.index.refresh-interval-ms:60000}")
+    @Transactional(readOnly = true, label = ReadReplicaRouter.PRIMARY)
+    public synchronized void load() {
+        Map<UUID, StoreLocation> current = new HashMap<>();
+        for (Object[] row : storeRepository.findAllLocations()) {
+            if (row[3] != null && row[4] != null) {
+                StoreLocation location = new StoreLocation((UUID) row[0], (String) row[1], (String) row[2],
+                        (Double) row[3], (Double) row[4], (String) row[5]);
+                current.put(location.uuid(), location);
+            }
+        }
+        List.copyOf(locations.keySet()).forEach(uuid -> {
+            if (!current.containsKey(uuid)) {
+                remove(uuid);
+            }
+        });
+        current.values().forEach(location -> {
+            if (!location.equals(locations.get(location.uuid()))) {
+                put(location);
+            }
+        });
+    }
+
+    public synchronized void put(StoreModel store) {
+        if (store.getLatitude() == null || store.getLongitude() == null) {
+            return;
+        }
+        put(new StoreLocation(store.getUuid(), store.getName(), store.getAddress(), store.getLatitude(),
+                store.getLongitude(), store.getQrCode()));
+    }
+
+    public synchronized void remove(UUID uuid) {
+        StoreLocation previous = locations.remove(uuid);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+    }
+
+    public StoreLocation get(UUID uuid) {
+        return locations.get(uuid);
+    }
+
+    /**
+     * Returns up to {@code limit} stores within {@code radiusMeters} of the given
+     * point, nearest first. When {@code candidates} is not null only those store
+     * UUIDs are considered.
+     */
+    public List<Match> nearby(double latitude, double longitude, double radiusMeters, int limit,
+            Set<UUID> candidates) {
+        double latDelta = radiusMeters / GeoUtils.METERS_PER_DEGREE;
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 1e-6);
+        double lngDelta = Math.min(radiusMeters / (GeoUtils.METERS_PER_DEGREE * cosLat), 180d);
+
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.comparingDouble(Match::distance).reversed());
+        long minRow = cellIndex(latitude - latDelta);
+        long maxRow = cellIndex(latitude + latDelta);
+        long minCol = cellIndex(longitude - lngDelta);
+        long maxCol = cellIndex(longitude + lngDelta);
+
+        if ((maxRow - minRow + 1) * (maxCol - minCol + 1) > cells.size()) {
+            locations.values().forEach(location -> offer(best, location, latitude, longitude, radiusMeters, limit,
+                    candidates));
+        } else {
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long col = minCol; col <= maxCol; col++) {
+                    Map<UUID, StoreLocation> cell = cells.get(key(row, col));
+                    if (cell != null) {
+                        cell.values().forEach(location -> offer(best, location, latitude, longitude, radiusMeters,
+                                limit, candidates));
+                    }
+                }
+            }
+        }
+
+        List<Match> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Match::distance));
+        return result;
+    }
+
+    private void offer(PriorityQueue<Match> best, StoreLocation location, double latitude, double longitude,
+            double radiusMeters, int limit, Set<UUID> candidates) {
+        if (candidates != null && !candidates.contains(location.uuid())) {
+            return;
+        }
+        double distance = GeoUtils.distanceMeters(latitude, longitude, location.latitude(), location.longitude());
+        if (distance > radiusMeters) {
+            return;
+        }
+        if (best.size() < limit) {
+            best.add(new Match(location, distance));
+        } else if (distance < best.peek().distance()) {
+            best.poll();
+            best.add(new Match(location, distance));
+        }
+    }
+
+    // A store that stays in its cell is replaced in place, so concurrent readers always find it
+    private void put(StoreLocation location) {
+        StoreLocation previous = locations.put(location.uuid(), location);
+        if (previous != null && cellKey(previous.latitude(), previous.longitude()) != cellKey(location.latitude(),
+                location.longitude())) {
+            removeFromCell(previous);
+        }
+        cells.computeIfAbsent(cellKey(location.latitude(), location.longitude()), key -> new ConcurrentHashMap<>())
+                .put(location.uuid(), location);
+    }
+
+    private void removeFromCell(StoreLocation location) {
+        long key = cellKey(location.latitude(), location.longitude());
+        Map<UUID, StoreLocation> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(location.uuid());
+        }
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return key(cellIndex(latitude), cellIndex(longitude));
+    }
+
+    private static long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) ^ (col & 0xffffffffL);
+    }
+}
@@ -3,6 +3,8 @@ package mtzg.carlos.server.modules.stores.dto;
 import java.util.List;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -15,6 +17,7 @@ import mtzg.carlos.server.modules.products.dto.ProductResponseDto;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class StoreResponseDto {
 
     private UUID uuid;
@@ -23,5 +26,7 @@ public class StoreResponseDto {
     private Double latitude;
     private Double longitude;
     private String qrCode;
+    private Double distance;
+    private List<UUID> productUuids;
     private List<ProductResponseDto> products;
 }
@@ -0,0 +1,26 @@
+package mtzg.carlos.server.modules.system;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/system")
+@RequiredArgsConstructor
+public class SystemController {
+
+    private final SystemService systemService;
+
+    @GetMapping("/datasources")
+    public ResponseEntity<Object> getDataSourceStats() {
+        return systemService.getDataSourceStats();
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Object> getCacheStats() {
+        return systemService.getCacheStats();
+    }
+}
@@ -0,0 +1,75 @@
+package mtzg.carlos.server.modules.system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.config.HibernateCacheConfig;
+import mtzg.carlos.server.modules.system.dto.CacheRegionStatsDto;
+import mtzg.carlos.server.utils.ReadReplicaRouter;
+import mtzg.carlos.server.utils.Utilities;
+
+@Service
+@RequiredArgsConstructor
+public class SystemService {
+
+    private final ReadReplicaRouter readReplicaRouter;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ResponseEntity<Object> getDataSourceStats() {
+        try {
+            return Utilities.generateResponse(HttpStatus.OK, "Data source stats retrieved successfully",
+                    readReplicaRouter.stats());
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while reading data source stats.");
+        }
+    }
+
+    public ResponseEntity<Object> getCacheStats() {
+        try {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            if (!statistics.isStatisticsEnabled()) {
+                return Utilities.generateResponse(HttpStatus.OK,
+                        "Cache stats are disabled, set HIBERNATE_STATISTICS_ENABLED=true", List.of());
+            }
+            List<CacheRegionStatsDto> regions = new ArrayList<>();
+            for (String region : HibernateCacheConfig.DATA_REGIONS) {
+                CacheRegionStatistics regionStats = HibernateCacheConfig.QUERY_RESULTS.equals(region)
+                        ? statistics.getQueryRegionStatistics(region)
+                        : statistics.getDomainDataRegionStatistics(region);
+                if (regionStats != null) {
+                    regions.add(toDto(region, regionStats.getHitCount(), regionStats.getMissCount(),
+                            regionStats.getPutCount()));
+                }
+            }
+            regions.add(toDto("natural-ids", statistics.getNaturalIdCacheHitCount(),
+                    statistics.getNaturalIdCacheMissCount(), statistics.getNaturalIdCachePutCount()));
+            regions.add(toDto("queries", statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                    statistics.getQueryCachePutCount()));
+            return Utilities.generateResponse(HttpStatus.OK, "Cache stats retrieved successfully", regions);
+        } catch (Exception e) {
+            return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "An error occurred while reading cache stats.");
+        }
+    }
+
+    private static CacheRegionStatsDto toDto(String region, long hits, long misses, long puts) {
+        long lookups = hits + misses;
+        return CacheRegionStatsDto.builder()
+                .region(region)
+                .hits(hits)
+                .misses(misses)
+                .puts(puts)
+                .hitRatio(lookups == 0 ? 0 : (double) hits / lookups)
+                .build();
+    }
+}
@@ -1,17 +1,30 @@
 package mtzg.carlos.server.modules.users;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
-public interface IUserRepository extends JpaRepository<UserModel, Long> {
+import mtzg.carlos.server.utils.NaturalIdRepository;
 
+public interface IUserRepository extends NaturalIdRepository<UserModel, Long> {
+
+    // Looked up on every authenticated request, always from the database: the caches are per node, so a user
+    // deleted or demoted through another node would keep being let in until the cached result expired
     Optional<UserModel> findByEmail(String email);
 
-    Optional<UserModel> findByUuid(UUID uuid);
+    // Resolved through the natural-id cache instead of a derived query
+    default Optional<UserModel> findByUuid(UUID uuid) {
+        return findBySimpleNaturalId(uuid);
+    }
+
+    default boolean existsByUuid(UUID uuid) {
+        return findByUuid(uuid).isPresent();
+    }
+
+    List<UserModel> findByUuidIn(Collection<UUID> uuids);
 
     @Query("SELECT u FROM UserModel u LEFT JOIN FETCH u.stores")
     List<UserModel> findAllWithStores();
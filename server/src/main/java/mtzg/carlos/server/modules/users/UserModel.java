@@ -11,6 +11,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -28,6 +33,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import mtzg.carlos.server.config.HibernateCacheConfig;
 import mtzg.carlos.server.modules.stores.StoreModel;
 import mtzg.carlos.server.modules.visits.VisitModel;
 
@@ -36,6 +42,8 @@ import mtzg.carlos.server.modules.visits.VisitModel;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS)
+@NaturalIdCache(region = HibernateCacheConfig.USER_NATURAL_IDS)
 @Table(name = "user", uniqueConstraints = @UniqueConstraint(columnNames = "email"))
 public class UserModel implements UserDetails {
 
@@ -43,6 +51,7 @@ public class UserModel implements UserDetails {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(name = "uuid", nullable = false, unique = true)
     private UUID uuid;
 
@@ -59,6 +68,7 @@ public class UserModel implements UserDetails {
     @Column(name = "role", nullable = false)
     private Role role;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_STORES)
     @ManyToMany
     @JsonIgnore
     @JoinTable(name = "routes", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "store_id"))
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -11,12 +12,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.config.CacheConfig;
 import mtzg.carlos.server.modules.jwt.JwtService;
 import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
 import mtzg.carlos.server.modules.users.dto.UserRegisterDto;
 import mtzg.carlos.server.modules.users.dto.UserResponseDto;
 import mtzg.carlos.server.modules.users.dto.UserUpdateDto;
 import mtzg.carlos.server.utils.Utilities;
+import mtzg.carlos.server.utils.UuidUtils;
 
 @Service
 @RequiredArgsConstructor
@@ -125,7 +128,7 @@ public class UserService {
             return Utilities.simpleResponse(HttpStatus.CONFLICT, "Unable to complete registration");
         }
         var user = UserModel.builder()
-                .uuid(UUID.randomUUID())
+                .uuid(UuidUtils.v7())
                 .name(request.getName())
                 .email(request.getEmail())
                 .password(passwordEncoder.encode(request.getPassword()))
@@ -138,6 +141,7 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = { CacheConfig.DRIVER_ROUTES, CacheConfig.OPTIMIZED_ROUTES }, allEntries = true)
     public ResponseEntity<Object> deleteUser(UUID userUuid) {
         try {
             Optional<UserModel> userOpt = userRepository.findByUuid(userUuid);
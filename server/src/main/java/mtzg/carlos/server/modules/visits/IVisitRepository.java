@@ -14,7 +14,8 @@ public interface IVisitRepository extends JpaRepository<VisitModel, Long> {
 
     Optional<VisitModel> findByUuid(UUID uuid);
 
-    @Query("SELECT v FROM VisitModel v LEFT JOIN FETCH v.orders")
+    // Fetches everything VisitMapper reads, so a cold second-level cache doesn't cost a load per user, store and product
+    @Query("SELECT v FROM VisitModel v JOIN FETCH v.user JOIN FETCH v.store LEFT JOIN FETCH v.orders o LEFT JOIN FETCH o.product")
     List<VisitModel> findAllWithOrders();
 
     @Query("SELECT v FROM VisitModel v LEFT JOIN FETCH v.orders WHERE v.uuid = :uuid")
@@ -0,0 +1,49 @@
+package mtzg.carlos.server.modules.visits;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import mtzg.carlos.server.modules.orders.dto.OrderRegisterDto;
+import mtzg.carlos.server.modules.orders.dto.OrderResponseDto;
+import mtzg.carlos.server.modules.visits.dto.VisitResponseDto;
+
+public class VisitMapper {
+
+    private static final ObjectReader ORDERS_READER = new ObjectMapper()
+            .readerFor(new TypeReference<List<OrderRegisterDto>>() {
+            });
+
+    private VisitMapper() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static VisitResponseDto toDto(VisitModel visit) {
+        return VisitResponseDto.builder()
+                .uuid(visit.getUuid())
+                .userName(visit.getUser().getName())
+                .storeName(visit.getStore().getName())
+                .visitDate(visit.getDate())
+                .validation(visit.isValidation())
+                .photo(visit.getPhoto())
+                .orders(
+                        visit.getOrders() == null ? List.of()
+                                : visit.getOrders().stream()
+                                        .map(order -> OrderResponseDto.builder()
+                                                .productName(order.getProduct().getName())
+                                                .quantity(order.getQuantity())
+                                                .unitPrice(order.getUnitPrice())
+                                                .total(order.getTotal())
+                                                .build())
+                                        .toList())
+                .build();
+    }
+
+    /** Parses the {@code orders} multipart field of a visit registration. */
+    public static List<OrderRegisterDto> readOrders(String ordersJson) throws IOException {
+        return ORDERS_READER.readValue(ordersJson);
+    }
+}
@@ -4,10 +4,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,20 +19,26 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
 
 import lombok.RequiredArgsConstructor;
+import mtzg.carlos.server.modules.inventory.InventoryCounters;
 import mtzg.carlos.server.modules.orders.OrderModel;
 import mtzg.carlos.server.modules.orders.dto.OrderRegisterDto;
-import mtzg.carlos.server.modules.orders.dto.OrderResponseDto;
+import mtzg.carlos.server.modules.outbox.OutboxPublisher;
 import mtzg.carlos.server.modules.products.IProductRepository;
 import mtzg.carlos.server.modules.products.ProductModel;
+import mtzg.carlos.server.modules.reports.SalesRollupService;
+import mtzg.carlos.server.modules.storeproducts.StorePricingEngine;
 import mtzg.carlos.server.modules.stores.IStoreRepository;
 import mtzg.carlos.server.modules.stores.StoreModel;
 import mtzg.carlos.server.modules.users.IUserRepository;
 import mtzg.carlos.server.modules.users.UserModel;
+import mtzg.carlos.server.modules.visits.dto.VisitEventDto;
 import mtzg.carlos.server.modules.visits.dto.VisitResponseDto;
+import mtzg.carlos.server.utils.TracingUtils;
+import mtzg.carlos.server.utils.TransactionUtils;
+import mtzg.carlos.server.utils.UuidUtils;
 import mtzg.carlos.server.utils.Utilities;
 
 @Service
@@ -39,30 +49,18 @@ public class VisitService {
     private final IUserRepository userRepository;
     private final IStoreRepository storeRepository;
     private final IProductRepository productRepository;
+    private final SalesRollupService salesRollupService;
+    private final OutboxPublisher outboxPublisher;
+    private final StorePricingEngine pricingEngine;
+    private final InventoryCounters inventoryCounters;
+    private final ObservationRegistry observationRegistry;
 
     @Transactional(readOnly = true)
     public ResponseEntity<Object> getAllVisits() {
         try {
             List<VisitModel> visits = visitRepository.findAllWithOrders();
             List<VisitResponseDto> visitsDto = visits.stream()
-                    .map(visit -> VisitResponseDto.builder()
-                            .uuid(visit.getUuid())
-                            .userName(visit.getUser().getName())
-                            .storeName(visit.getStore().getName())
-                            .visitDate(visit.getDate())
-                            .validation(visit.isValidation())
-                            .photo(visit.getPhoto())
-                            .orders(
-                                    visit.getOrders() == null ? List.of()
-                                            : visit.getOrders().stream()
-                                                    .map(order -> OrderResponseDto.builder()
-                                                            .productName(order.getProduct().getName())
-                                                            .quantity(order.getQuantity())
-                                                            .unitPrice(order.getUnitPrice())
-                                                            .total(order.getTotal())
-                                                            .build())
-                                                    .toList())
-                            .build())
+                    .map(VisitMapper::toDto)
                     .toList();
             return Utilities.generateResponse(HttpStatus.OK, "Visits retrieved successfully", visitsDto);
         } catch (Exception e) {
@@ -78,26 +76,7 @@ public class VisitService {
             if (visitOpt.isEmpty()) {
                 return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Visit not found");
             }
-            VisitModel visit = visitOpt.get();
-
-            VisitResponseDto visitDto = VisitResponseDto.builder()
-                    .uuid(visit.getUuid())
-                    .userName(visit.getUser().getName())
-                    .storeName(visit.getStore().getName())
-                    .visitDate(visit.getDate())
-                    .validation(visit.isValidation())
-                    .photo(visit.getPhoto())
-                    .orders(
-                            visit.getOrders() == null ? List.of()
-                                    : visit.getOrders().stream()
-                                            .map(order -> OrderResponseDto.builder()
-                                                    .productName(order.getProduct().getName())
-                                                    .quantity(order.getQuantity())
-                                                    .unitPrice(order.getUnitPrice())
-                                                    .total(order.getTotal())
-                                                    .build())
-                                            .toList())
-                    .build();
+            VisitResponseDto visitDto = VisitMapper.toDto(visitOpt.get());
             return Utilities.generateResponse(HttpStatus.OK, "Visit retrieved successfully", visitDto);
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
@@ -120,57 +99,34 @@ public class VisitService {
             }
 
             StoreModel store = storeOpt.get();
+            UserModel user = userOpt.get();
 
-            if (!userHasStoreInRoute(userOpt.get(), storeUuid)) {
+            if (!TracingUtils.stage(observationRegistry, "visit.check-route",
+                    () -> userHasStoreInRoute(user, storeUuid))) {
                 return Utilities.simpleResponse(HttpStatus.FORBIDDEN, "User does not have access to this store");
             }
 
-            ObjectMapper mapper = new ObjectMapper();
-            List<OrderRegisterDto> orderDtos = mapper.readValue(ordersJson,
-                    new TypeReference<List<OrderRegisterDto>>() {
-                    });
+            List<OrderRegisterDto> orderDtos = TracingUtils.stage(observationRegistry, "visit.parse-orders",
+                    () -> VisitMapper.readOrders(ordersJson));
 
             List<UUID> notAssignedProducts = new java.util.ArrayList<>();
-            List<OrderModel> orders = new java.util.ArrayList<>();
-            if (orderDtos != null && !orderDtos.isEmpty()) {
-                for (OrderRegisterDto orderDto : orderDtos) {
-                    Optional<ProductModel> productOpt = productRepository.findByUuid(orderDto.getProductUuid());
-                    if (productOpt.isEmpty()) {
-                        continue;
-                    }
-                    ProductModel product = productOpt.get();
-                    boolean assigned = store.getProducts() != null &&
-                            store.getProducts().stream().anyMatch(p -> p.getUuid().equals(product.getUuid()));
-                    if (!assigned) {
-                        notAssignedProducts.add(product.getUuid());
-                        continue;
-                    }
-                    orders.add(OrderModel.builder()
-                            .uuid(UUID.randomUUID())
-                            .quantity(orderDto.getQuantity())
-                            .unitPrice(product.getBasePrice())
-                            .total(orderDto.getQuantity() * product.getBasePrice())
-                            .product(product)
-                            .visit(null)
-                            .build());
-                }
-                if (!notAssignedProducts.isEmpty()) {
-                    return Utilities.simpleResponse(HttpStatus.BAD_REQUEST,
-                            "The following products are not assigned to this store: " + notAssignedProducts);
-                }
+            List<OrderModel> orders = TracingUtils.stage(observationRegistry, "visit.price-orders",
+                    () -> buildOrders(store, orderDtos, notAssignedProducts));
+            if (!notAssignedProducts.isEmpty()) {
+                return Utilities.simpleResponse(HttpStatus.BAD_REQUEST,
+                        "The following products are not assigned to this store: " + notAssignedProducts);
             }
 
-            String photoPath = null;
-            if (photo != null && !photo.isEmpty()) {
-                photoPath = saveVisitPhoto(userOpt.get().getName(), store.getName(), photo, "uploads");
-            }
+            String photoPath = photo == null || photo.isEmpty() ? null
+                    : TracingUtils.stage(observationRegistry, "visit.save-photo",
+                            () -> saveVisitPhoto(user.getName(), store.getName(), photo, "uploads"));
 
             VisitModel visit = VisitModel.builder()
-                    .uuid(UUID.randomUUID())
+                    .uuid(UuidUtils.v7())
                     .date(LocalDate.now())
                     .photo(photoPath)
                     .validation(validation)
-                    .user(userOpt.get())
+                    .user(user)
                     .store(store)
                     .build();
 
@@ -179,7 +135,14 @@ public class VisitService {
                 visit.setOrders(new HashSet<>(orders));
             }
 
-            visitRepository.save(visit);
+            TracingUtils.stage(observationRegistry, "visit.persist", () -> {
+                visitRepository.save(visit);
+                salesRollupService.recordVisit(visit);
+                adjustInventory(visit, -1);
+                outboxPublisher.publish(VisitEventDto.VISIT_REGISTERED, visit.getUuid(), toEvent(visit));
+            });
+            // Flushed here rather than at commit so the remaining writes show up as their own stage
+            TracingUtils.stage(observationRegistry, "visit.flush", () -> visitRepository.flush());
             return Utilities.simpleResponse(HttpStatus.CREATED, "Visit registered successfully");
         } catch (Exception e) {
             return Utilities.simpleResponse(HttpStatus.INTERNAL_SERVER_ERROR,
@@ -195,6 +158,9 @@ public class VisitService {
                 return Utilities.simpleResponse(HttpStatus.NOT_FOUND, "Visit not found");
             }
 
+            salesRollupService.revertVisit(visitOpt.get());
+            adjustInventory(visitOpt.get(), 1);
+            outboxPublisher.publish(VisitEventDto.VISIT_DELETED, visitUuid, toEvent(visitOpt.get()));
             visitRepository.delete(visitOpt.get());
             return Utilities.simpleResponse(HttpStatus.OK, "Visit deleted successfully");
         } catch (Exception e) {
@@ -203,6 +169,45 @@ public class VisitService {
         }
     }
 
+    /**
+     * Prices each requested line against the store's assortment. Products
+     * outside the assortment are collected in {@code notAssignedProducts}
+     * (unknown UUIDs were always ignored, so only existing ones are reported).
+     */
+    private List<OrderModel> buildOrders(StoreModel store, List<OrderRegisterDto> orderDtos,
+            List<UUID> notAssignedProducts) {
+        List<OrderModel> orders = new java.util.ArrayList<>();
+        if (orderDtos == null || orderDtos.isEmpty()) {
+            return orders;
+        }
+        Map<UUID, ProductModel> assortment = new HashMap<>();
+        if (store.getProducts() != null) {
+            store.getProducts().forEach(product -> assortment.put(product.getUuid(), product));
+        }
+        LocalDateTime pricedAt = LocalDateTime.now();
+        List<UUID> unassigned = new java.util.ArrayList<>();
+        for (OrderRegisterDto orderDto : orderDtos) {
+            ProductModel product = assortment.get(orderDto.getProductUuid());
+            if (product == null) {
+                unassigned.add(orderDto.getProductUuid());
+                continue;
+            }
+            double unitPrice = pricingEngine.priceFor(store.getId(), product, pricedAt);
+            orders.add(OrderModel.builder()
+                    .uuid(UuidUtils.v7())
+                    .quantity(orderDto.getQuantity())
+                    .unitPrice(unitPrice)
+                    .total(orderDto.getQuantity() * unitPrice)
+                    .product(product)
+                    .visit(null)
+                    .build());
+        }
+        if (!unassigned.isEmpty()) {
+            productRepository.findByUuidIn(unassigned).forEach(product -> notAssignedProducts.add(product.getUuid()));
+        }
+        return orders;
+    }
+
     private String saveVisitPhoto(String userName, String storeName, MultipartFile photo, String baseDir)
             throws Exception {
         String rootPath = System.getProperty("user.dir");
@@ -230,6 +235,38 @@ public class VisitService {
         return filePath.toString();
     }
 
+    private void adjustInventory(VisitModel visit, int sign) {
+        if (visit.getOrders() == null || visit.getOrders().isEmpty()) {
+            return;
+        }
+        Map<Long, Long> quantities = visit.getOrders().stream()
+                .collect(Collectors.groupingBy(order -> order.getProduct().getId(),
+                        Collectors.summingLong(OrderModel::getQuantity)));
+        Long storeId = visit.getStore().getId();
+        TransactionUtils.afterCommit(() -> inventoryCounters.applyVisit(storeId, quantities, sign));
+    }
+
+    private VisitEventDto toEvent(VisitModel visit) {
+        return VisitEventDto.builder()
+                .visitUuid(visit.getUuid())
+                .userUuid(visit.getUser().getUuid())
+                .storeUuid(visit.getStore().getUuid())
+                .date(visit.getDate())
+                .validation(visit.isValidation())
+                .photo(visit.getPhoto())
+                .orders(visit.getOrders() == null ? List.of()
+                        : visit.getOrders().stream()
+                                .map(order -> VisitEventDto.Line.builder()
+                                        .orderUuid(order.getUuid())
+                                        .productUuid(order.getProduct().getUuid())
+                                        .quantity(order.getQuantity())
+                                        .unitPrice(order.getUnitPrice())
+                                        .total(order.getTotal())
+                                        .build())
+                                .toList())
+                .build();
+    }
+
     private String sanitizeName(String name) {
         if (name == null)
             return "";
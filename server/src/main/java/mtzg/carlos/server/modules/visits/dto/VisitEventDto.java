@@ -0,0 +1,44 @@
+package mtzg.carlos.server.modules.visits.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VisitEventDto {
+
+    public static final String VISIT_REGISTERED = "visit.registered";
+    public static final String VISIT_DELETED = "visit.deleted";
+
+    private UUID visitUuid;
+    private UUID userUuid;
+    private UUID storeUuid;
+    private LocalDate date;
+    private boolean validation;
+    private String photo;
+    private List<Line> orders;
+
+    @Getter
+    @Setter
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Line {
+
+        private UUID orderUuid;
+        private UUID productUuid;
+        private Integer quantity;
+        private Double unitPrice;
+        private Double total;
+    }
+}
@@ -0,0 +1,92 @@
+package mtzg.carlos.server.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the requests in flight with a limit that adapts to how the server is
+ * coping (additive increase, multiplicative decrease): once per window the
+ * limit backs off by {@code backoff} when the window was overloaded and
+ * grows by a tenth while it was the bottleneck, always staying between
+ * {@code minLimit} and {@code maxLimit}.
+ *
+ * Critical requests may use the whole limit; every other request only the
+ * share left after {@code criticalReserve}, so they are shed first and the
+ * reserve stays free for the critical ones.
+ */
+public final class ConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double criticalReserve;
+    private final double backoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private volatile int limit;
+
+    public ConcurrencyLimiter(int minLimit, int maxLimit, double criticalReserve, double backoff) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.criticalReserve = criticalReserve;
+        this.backoff = backoff;
+        this.limit = this.maxLimit;
+    }
+
+    /** Admits a request unless its share of the limit is taken; admitted requests must be released. */
+    public boolean tryAcquire(boolean critical) {
+        int ceiling = critical ? limit : Math.max(1, (int) (limit * (1 - criticalReserve)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= ceiling) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /** Releases a request and counts {@code nanos} towards the window's average latency. */
+    public void release(long nanos) {
+        inFlight.decrementAndGet();
+        latencyNanos.add(nanos);
+        completed.increment();
+    }
+
+    /** Releases a request whose duration says nothing about how the server is coping. */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Closes a window. It counts as overloaded when its requests averaged
+     * more than {@code latencyThresholdNanos} or the caller saw another
+     * symptom ({@code saturated}, e.g. threads queueing for connections).
+     * Returns the average latency of the window in nanoseconds.
+     */
+    public long adjust(long latencyThresholdNanos, boolean saturated) {
+        long count = completed.sumThenReset();
+        long total = latencyNanos.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        long average = count == 0 ? 0 : total / count;
+        int current = limit;
+        if (saturated || average > latencyThresholdNanos) {
+            limit = Math.max(minLimit, (int) (current * backoff));
+        } else if (peak >= (int) (current * (1 - criticalReserve))) {
+            limit = Math.min(maxLimit, current + Math.max(1, current / 10));
+        }
+        return average;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
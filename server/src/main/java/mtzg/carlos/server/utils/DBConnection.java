@@ -1,15 +1,25 @@
 package mtzg.carlos.server.utils;
 
+import java.sql.Connection;
+
 import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
 
 @Configuration
 public class DBConnection {
 
+    @Value("${db.url:}")
+    private String dbUrl;
+
     @Value("${db.host}")
     private String dbHost;
 
@@ -25,14 +35,83 @@ public class DBConnection {
     @Value("${db.password}")
     private String dbPassword;
 
+    @Value("${db.pool.max-size:10}")
+    private int poolMaxSize;
+
+    @Value("${db.replica.host:}")
+    private String replicaHost;
+
+    @Value("${db.replica.port:3306}")
+    private String replicaPort;
+
+    @Value("${db.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${db.replica.password:}")
+    private String replicaPassword;
+
+    @Value("${db.replica.pool.max-size:10}")
+    private int replicaPoolMaxSize;
+
+    @Value("${db.replica.max-lag-seconds:5}")
+    private long replicaMaxLagSeconds;
+
     @Bean
-    public DataSource dataSource() {
-        String dbUrl = String.format("jdbc:mysql://%s:%s/%s", dbHost, dbPort, dbName);
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl(dbUrl);
-        dataSource.setUsername(dbUsername);
-        dataSource.setPassword(dbPassword);
+    public ReadReplicaRouter readReplicaRouter() {
+        HikariDataSource primary = pool("primary", dbUrl.isBlank() ? mysqlUrl(dbHost, dbPort) : dbUrl,
+                dbUsername, dbPassword, poolMaxSize);
+        HikariDataSource replica = null;
+        if (replicaHost != null && !replicaHost.isBlank()) {
+            replica = pool("replica", mysqlUrl(replicaHost, replicaPort),
+                    replicaUsername.isBlank() ? dbUsername : replicaUsername,
+                    replicaUsername.isBlank() ? dbPassword : replicaPassword, replicaPoolMaxSize);
+            replica.setReadOnly(true);
+        }
+        return new ReadReplicaRouter(primary, replica, replicaMaxLagSeconds);
+    }
+
+    /**
+     * Transactions marked {@code readOnly} run on the replica when one is
+     * configured. The lazy proxy holds off fetching a physical connection until
+     * the first statement, by which point the transaction manager has flagged
+     * the connection read-only and the proxy can pick the right pool.
+     */
+    @Bean
+    public DataSource dataSource(ReadReplicaRouter router) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(router.primaryDataSource());
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        if (router.hasReplica()) {
+            dataSource.setReadOnlyDataSource(router.readDataSource());
+        }
+        return dataSource;
+    }
+
+    /**
+     * The JPA transaction manager Spring Boot would otherwise create, keeping
+     * replica reads out of the second-level cache and sending read-only
+     * transactions labelled {@link ReadReplicaRouter#PRIMARY} to the primary.
+     */
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+            ReadReplicaRouter router) {
+        JpaTransactionManager transactionManager = new ReplicaAwareTransactionManager(router);
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
+        return transactionManager;
+    }
+
+    private String mysqlUrl(String host, String port) {
+        return String.format("jdbc:mysql://%s:%s/%s", host, port, dbName);
+    }
+
+    // The driver is resolved from the URL, so db.url can point at another database
+    private HikariDataSource pool(String name, String jdbcUrl, String username, String password, int maxSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(jdbcUrl);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maxSize);
         return dataSource;
     }
 }
@@ -0,0 +1,22 @@
+package mtzg.carlos.server.utils;
+
+public class GeoUtils {
+    private GeoUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static final double EARTH_RADIUS_METERS = 6_371_000d;
+    public static final double METERS_PER_DEGREE = 111_320d;
+
+    /**
+     * Great-circle (haversine) distance between two coordinates, in meters.
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1d, Math.sqrt(a)));
+    }
+}
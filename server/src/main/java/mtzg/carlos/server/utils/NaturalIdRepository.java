@@ -0,0 +1,17 @@
+package mtzg.carlos.server.utils;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Repository that can load an entity by its {@code @NaturalId}. Unlike a
+ * derived {@code findByX} query, the lookup goes through Hibernate's natural-id
+ * cache, so a warm lookup doesn't reach the database.
+ */
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+}
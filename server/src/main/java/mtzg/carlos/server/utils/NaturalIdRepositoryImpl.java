@@ -0,0 +1,33 @@
+package mtzg.carlos.server.utils;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Base class for every repository in the application (see
+ * {@code JpaConfig}); only entities with a {@code @NaturalId} may call
+ * {@link #findBySimpleNaturalId}.
+ */
+@Transactional(readOnly = true)
+public class NaturalIdRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> implements NaturalIdRepository<T, ID> {
+
+    private final EntityManager entityManager;
+    private final Class<T> domainClass;
+
+    public NaturalIdRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+        this.domainClass = entityInformation.getJavaType();
+    }
+
+    @Override
+    public Optional<T> findBySimpleNaturalId(Object naturalId) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(domainClass).loadOptional(naturalId);
+    }
+}
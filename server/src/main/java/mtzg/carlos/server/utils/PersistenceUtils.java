@@ -0,0 +1,30 @@
+package mtzg.carlos.server.utils;
+
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+public class PersistenceUtils {
+    private PersistenceUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Whether the violation is of the named constraint. Databases qualify the
+     * name differently ("products.uk_..." on MySQL, an index name on H2), so
+     * the name only has to appear in the reported one.
+     */
+    public static boolean violates(DataIntegrityViolationException e, String constraint) {
+        String reported = null;
+        for (Throwable cause = e; cause != null && reported == null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                reported = violation.getConstraintName();
+            }
+        }
+        if (reported == null) {
+            reported = e.getMostSpecificCause().getMessage();
+        }
+        return reported != null && reported.toLowerCase(Locale.ROOT).contains(constraint);
+    }
+}
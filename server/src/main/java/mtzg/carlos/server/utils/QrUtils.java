@@ -1,17 +1,24 @@
 package mtzg.carlos.server.utils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 
 public class QrUtils {
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+
     private QrUtils() {
         throw new UnsupportedOperationException("Utility class");
     }
@@ -26,8 +33,56 @@ public class QrUtils {
 
         Files.createDirectories(path.getParent());
 
-        MatrixToImageWriter.writeToPath(bitMatrix, "PNG", path);
+        Files.write(path, toPng(bitMatrix));
 
         return filePath;
     }
+
+    /**
+     * Encodes the matrix as a black and white (1-bit grayscale) PNG. Done by
+     * hand instead of through ZXing's {@code MatrixToImageWriter} so that QR
+     * codes don't need {@code java.awt} and ImageIO, which the native image
+     * can't use without extra configuration.
+     */
+    static byte[] toPng(BitMatrix matrix) throws IOException {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int rowBytes = (width + 7) / 8;
+        // Each scanline starts with its filter type, 0 (none); white pixels are set bits
+        byte[] scanlines = new byte[(rowBytes + 1) * height];
+        for (int y = 0; y < height; y++) {
+            int row = y * (rowBytes + 1) + 1;
+            for (int x = 0; x < width; x++) {
+                if (!matrix.get(x, y)) {
+                    scanlines[row + x / 8] |= (byte) (0x80 >>> (x % 8));
+                }
+            }
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+            deflater.write(scanlines);
+        }
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        png.write(PNG_SIGNATURE);
+        chunk(png, "IHDR", ByteBuffer.allocate(13)
+                .putInt(width)
+                .putInt(height)
+                .put(new byte[] { 1, 0, 0, 0, 0 })
+                .array());
+        chunk(png, "IDAT", compressed.toByteArray());
+        chunk(png, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    private static void chunk(ByteArrayOutputStream png, String type, byte[] data) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        png.writeBytes(ByteBuffer.allocate(4).putInt(data.length).array());
+        png.writeBytes(typeBytes);
+        png.writeBytes(data);
+        png.writeBytes(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
 }
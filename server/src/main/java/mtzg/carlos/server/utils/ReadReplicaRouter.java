@@ -0,0 +1,226 @@
+package mtzg.carlos.server.utils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the primary and replica pools and decides where read-only connections
+ * come from. The replica is used while it is reachable and no further behind
+ * than {@code maxLagSeconds}; otherwise reads fall back to the primary until
+ * the next health check brings it back. Read-only transactions labelled
+ * {@link #PRIMARY} always read from the primary (see
+ * {@link ReplicaAwareTransactionManager}).
+ */
+@Slf4j
+public class ReadReplicaRouter implements DisposableBean, MeterBinder {
+
+    /**
+     * Label for read-only transactions whose results outlive them, such as
+     * cached routes: a replica that has not caught up with the write that
+     * evicted the cache would otherwise put the old data back.
+     */
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final long maxLagSeconds;
+
+    private volatile boolean replicaHealthy = true;
+    private volatile long replicaLagSeconds = -1;
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder replicaFallbacks = new LongAdder();
+    private final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+
+    public record PoolStats(String pool, boolean healthy, long lagSeconds, int active, int idle, int total,
+            int waiting, long connectionsServed, long fallbacks) {
+    }
+
+    public ReadReplicaRouter(HikariDataSource primary, HikariDataSource replica, long maxLagSeconds) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean hasReplica() {
+        return replica != null;
+    }
+
+    // Set for the duration of a transaction by ReplicaAwareTransactionManager
+    boolean isPrimaryOnly() {
+        return primaryOnly.get() != null;
+    }
+
+    void setPrimaryOnly(boolean value) {
+        if (value) {
+            primaryOnly.set(Boolean.TRUE);
+        } else {
+            primaryOnly.remove();
+        }
+    }
+
+    public DataSource primaryDataSource() {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                primaryConnections.increment();
+                return super.getConnection();
+            }
+        };
+    }
+
+    public DataSource readDataSource() {
+        return new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (isPrimaryOnly()) {
+                    primaryConnections.increment();
+                    return primary.getConnection();
+                }
+                if (replicaHealthy) {
+                    try {
+                        Connection connection = replica.getConnection();
+                        replicaConnections.increment();
+                        return connection;
+                    } catch (SQLException e) {
+                        replicaHealthy = false;
+                        log.warn("Replica unavailable, routing reads to the primary: {}", e.getMessage());
+                    }
+                }
+                replicaFallbacks.increment();
+                primaryConnections.increment();
+                return primary.getConnection();
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${db.replica.check-interval-ms:5000}")
+    public void checkReplica() {
+        if (replica == null) {
+            return;
+        }
+        boolean healthy;
+        long lag;
+        try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+            lag = replicationLag(statement);
+            healthy = lag >= 0 && lag <= maxLagSeconds;
+        } catch (SQLException e) {
+            lag = -1;
+            healthy = false;
+        }
+        if (healthy != replicaHealthy) {
+            log.warn(healthy ? "Replica back in rotation (lag {}s)" : "Replica out of rotation (lag {}s)", lag);
+        }
+        replicaLagSeconds = lag;
+        replicaHealthy = healthy;
+    }
+
+    /**
+     * Seconds the replica is behind its source, 0 when the server is not
+     * replicating (e.g. two standalone instances in development), or -1 when
+     * replication is configured but stopped.
+     */
+    private long replicationLag(Statement statement) throws SQLException {
+        ResultSet status;
+        String column;
+        try {
+            status = statement.executeQuery("SHOW REPLICA STATUS");
+            column = "Seconds_Behind_Source";
+        } catch (SQLException e) {
+            // MySQL before 8.0.22 and MariaDB only know the old names
+            status = statement.executeQuery("SHOW SLAVE STATUS");
+            column = "Seconds_Behind_Master";
+        }
+        try (ResultSet result = status) {
+            if (!result.next()) {
+                return 0;
+            }
+            long lag = result.getLong(column);
+            return result.wasNull() ? -1 : lag;
+        }
+    }
+
+    public List<PoolStats> stats() {
+        List<PoolStats> stats = new ArrayList<>();
+        stats.add(stats("primary", primary, true, 0, primaryConnections.sum(), 0));
+        if (replica != null) {
+            stats.add(stats("replica", replica, replicaHealthy, replicaLagSeconds, replicaConnections.sum(),
+                    replicaFallbacks.sum()));
+        }
+        return stats;
+    }
+
+    private static PoolStats stats(String name, HikariDataSource pool, boolean healthy, long lag, long served,
+            long fallbacks) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        return bean == null
+                ? new PoolStats(name, healthy, lag, 0, 0, 0, 0, served, fallbacks)
+                : new PoolStats(name, healthy, lag, bean.getActiveConnections(), bean.getIdleConnections(),
+                        bean.getTotalConnections(), bean.getThreadsAwaitingConnection(), served, fallbacks);
+    }
+
+    /**
+     * Publishes Hikari's own pool metrics ({@code hikaricp.connections.*},
+     * tagged by pool name) for both pools, plus the routing counters kept
+     * here. The primary may already have been bound by Spring Boot through
+     * the {@code DataSource} bean, so a pool with a tracker is left alone.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindPool(primary, registry);
+        FunctionCounter.builder("db.pool.connections.served", primaryConnections, LongAdder::sum)
+                .tag("pool", "primary")
+                .register(registry);
+        if (replica == null) {
+            return;
+        }
+        bindPool(replica, registry);
+        FunctionCounter.builder("db.pool.connections.served", replicaConnections, LongAdder::sum)
+                .tag("pool", "replica")
+                .register(registry);
+        FunctionCounter.builder("db.replica.fallbacks", replicaFallbacks, LongAdder::sum)
+                .description("Read-only connections served by the primary because the replica was out of rotation")
+                .register(registry);
+        Gauge.builder("db.replica.lag", this, router -> router.replicaLagSeconds)
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("db.replica.healthy", this, router -> router.replicaHealthy ? 1 : 0)
+                .register(registry);
+    }
+
+    private static void bindPool(HikariDataSource pool, MeterRegistry registry) {
+        if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (replica != null) {
+            replica.close();
+        }
+        primary.close();
+    }
+}
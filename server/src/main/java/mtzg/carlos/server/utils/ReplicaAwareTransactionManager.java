@@ -0,0 +1,97 @@
+package mtzg.carlos.server.utils;
+
+import java.sql.SQLException;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keeps data read from a lagging replica out of the shared caches. When a
+ * replica is configured, read-only transactions only read the second-level
+ * and query caches; they don't fill them, since the replica may still return
+ * what a just-committed write evicted. Read-only transactions labelled
+ * {@link ReadReplicaRouter#PRIMARY} read from the primary instead and fill
+ * the caches as usual.
+ */
+public class ReplicaAwareTransactionManager extends JpaTransactionManager {
+
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    private final transient ReadReplicaRouter router;
+
+    public ReplicaAwareTransactionManager(ReadReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Adopts the entity manager factory's dialect, so ours is set afterwards
+        super.afterPropertiesSet();
+        setJpaDialect(new Dialect(router));
+    }
+
+    // The dialect only gets a copy of the definition, without its labels
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        router.setPrimaryOnly(definition.isReadOnly() && router.hasReplica()
+                && definition instanceof TransactionAttribute attribute
+                && attribute.getLabels().contains(ReadReplicaRouter.PRIMARY));
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException e) {
+            router.setPrimaryOnly(false);
+            throw e;
+        }
+    }
+
+    private static final class Dialect extends HibernateJpaDialect {
+
+        private final transient ReadReplicaRouter router;
+
+        private record PrimaryRead(Object transactionData) {
+        }
+
+        private record ReplicaRead(Object transactionData, EntityManager entityManager, Object storeMode) {
+        }
+
+        Dialect(ReadReplicaRouter router) {
+            this.router = router;
+        }
+
+        @Override
+        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                throws SQLException {
+            if (!definition.isReadOnly() || !router.hasReplica()) {
+                return super.beginTransaction(entityManager, definition);
+            }
+            if (router.isPrimaryOnly()) {
+                // Holds until cleanup, as the connection is only fetched on the first statement
+                return new PrimaryRead(super.beginTransaction(entityManager, definition));
+            }
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            // The entity manager outlives the transaction with open-in-view, so the mode is restored on cleanup
+            Object storeMode = entityManager.getProperties().get(STORE_MODE);
+            entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+            return new ReplicaRead(transactionData, entityManager, storeMode);
+        }
+
+        @Override
+        public void cleanupTransaction(Object transactionData) {
+            if (transactionData instanceof PrimaryRead read) {
+                router.setPrimaryOnly(false);
+                super.cleanupTransaction(read.transactionData());
+            } else if (transactionData instanceof ReplicaRead read) {
+                read.entityManager().setProperty(STORE_MODE,
+                        read.storeMode() != null ? read.storeMode() : CacheStoreMode.USE);
+                super.cleanupTransaction(read.transactionData());
+            } else {
+                super.cleanupTransaction(transactionData);
+            }
+        }
+    }
+}
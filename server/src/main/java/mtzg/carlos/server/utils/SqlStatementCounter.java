@@ -0,0 +1,187 @@
+package mtzg.carlos.server.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * scope opened with {@link #begin} is active, and attributes them to the lazy
+ * collections and to-one associations whose loading fired them. Outside a
+ * scope every hook returns straight away.
+ *
+ * Association loads are bracketed by a listener placed before Hibernate's own
+ * and one placed after it, so only loads that actually reached the database
+ * (not the session or second-level cache) are reported.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /** Target entity name -> "Owner.attribute" labels of the to-one associations pointing at it. */
+    private static volatile Map<String, String> toOneLabels = Map.of();
+
+    public static final StatementInspector INSPECTOR = sql -> {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statement();
+        }
+        return sql;
+    };
+
+    private SqlStatementCounter() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static final class Scope {
+        private final IntSupplier budget;
+        private final boolean enforce;
+        private final Deque<Integer> pending = new ArrayDeque<>();
+        private final Map<String, int[]> lazyLoads = new LinkedHashMap<>();
+        private int statements;
+
+        private Scope(IntSupplier budget, boolean enforce) {
+            this.budget = budget;
+            this.enforce = enforce;
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        /** Association label -> {loads, statements}, in the order they first fired. */
+        public Map<String, int[]> lazyLoads() {
+            return lazyLoads;
+        }
+
+        private void statement() {
+            statements++;
+            if (enforce) {
+                int limit = budget.getAsInt();
+                if (limit >= 0 && statements > limit) {
+                    throw new IllegalStateException(
+                            "SQL statement budget of " + limit + " exceeded; lazy loads so far: " + describe(this));
+                }
+            }
+        }
+
+        private void associationLoaded(String label) {
+            Integer before = pending.pollFirst();
+            if (before == null || label == null || statements == before) {
+                return;
+            }
+            int[] counts = lazyLoads.computeIfAbsent(label, key -> new int[2]);
+            counts[0]++;
+            counts[1] += statements - before;
+        }
+    }
+
+    /**
+     * Opens a counting scope on the current thread. With {@code enforce} the
+     * statement that goes over {@code budget} fails instead of running, which
+     * is how tests turn an N+1 regression into an error.
+     */
+    public static Scope begin(IntSupplier budget, boolean enforce) {
+        Scope scope = new Scope(budget, enforce);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /** e.g. "VisitModel.user x12 (12 statements), StoreModel.products x3 (3 statements)" */
+    public static String describe(Scope scope) {
+        if (scope.lazyLoads.isEmpty()) {
+            return "none";
+        }
+        List<String> parts = new ArrayList<>();
+        scope.lazyLoads.forEach((label, counts) -> parts
+                .add(label + " x" + counts[0] + " (" + counts[1] + " statements)"));
+        return String.join(", ", parts);
+    }
+
+    /**
+     * Hooks the association-load listeners into the session factory. Must be
+     * called once, after the factory is built.
+     */
+    public static void register(SessionFactoryImplementor sessionFactory) {
+        Map<String, List<String>> candidates = new HashMap<>();
+        for (EntityType<?> entity : sessionFactory.getJpaMetamodel().getEntities()) {
+            for (Attribute<?, ?> attribute : entity.getAttributes()) {
+                Attribute.PersistentAttributeType type = attribute.getPersistentAttributeType();
+                if (type == Attribute.PersistentAttributeType.MANY_TO_ONE
+                        || type == Attribute.PersistentAttributeType.ONE_TO_ONE) {
+                    candidates.computeIfAbsent(attribute.getJavaType().getName(), key -> new ArrayList<>())
+                            .add(entity.getName() + "." + attribute.getName());
+                }
+            }
+        }
+        Map<String, String> labels = new HashMap<>();
+        candidates.forEach((target, owners) -> labels.put(target, String.join("|", owners)));
+        toOneLabels = labels;
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.prependListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> markStart());
+        registry.appendListeners(EventType.LOAD, (LoadEventListener) SqlStatementCounter::entityLoaded);
+        registry.prependListeners(EventType.INIT_COLLECTION,
+                (InitializeCollectionEventListener) event -> markStart());
+        registry.appendListeners(EventType.INIT_COLLECTION,
+                (InitializeCollectionEventListener) SqlStatementCounter::collectionLoaded);
+    }
+
+    private static void markStart() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.pending.addFirst(scope.statements);
+        }
+    }
+
+    private static void entityLoaded(LoadEvent event, LoadEventListener.LoadType loadType) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            // GET/LOAD are explicit finds, not association fetches
+            boolean association = loadType != LoadEventListener.GET && loadType != LoadEventListener.LOAD
+                    && loadType != LoadEventListener.RELOAD;
+            scope.associationLoaded(association ? toOneLabel(event.getEntityClassName()) : null);
+        }
+    }
+
+    private static void collectionLoaded(InitializeCollectionEvent event) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            String role = event.getCollection().getRole();
+            scope.associationLoaded(role == null ? null : shortName(role));
+        }
+    }
+
+    private static String toOneLabel(String entityClassName) {
+        String label = toOneLabels.get(entityClassName);
+        return label != null ? label : entityClassName.substring(entityClassName.lastIndexOf('.') + 1);
+    }
+
+    // "mtzg.carlos.server.modules.stores.StoreModel.products" -> "StoreModel.products"
+    private static String shortName(String name) {
+        int attribute = name.lastIndexOf('.');
+        int owner = attribute > 0 ? name.lastIndexOf('.', attribute - 1) : -1;
+        return name.substring(owner + 1);
+    }
+}
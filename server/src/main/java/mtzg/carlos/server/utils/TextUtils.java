@@ -0,0 +1,27 @@
+package mtzg.carlos.server.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class TextUtils {
+    private TextUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Canonical form used for name uniqueness: accents removed, lowercased,
+     * trimmed and with inner whitespace collapsed, so "Café  Veracruz" and
+     * "cafe veracruz" collide.
+     */
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(folded.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
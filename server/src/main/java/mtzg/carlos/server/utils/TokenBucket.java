@@ -0,0 +1,47 @@
+package mtzg.carlos.server.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket refilled at {@code ratePerSecond} and holding up to
+ * {@code burst} tokens, kept lock-free as a single timestamp (the "theoretical
+ * arrival time" of the generic cell rate algorithm): taking a token moves it
+ * one refill interval forward, and a request is refused while it lies more
+ * than {@code burst - 1} intervals in the future. One compare-and-set per
+ * request, no background refill.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(burst, 1) - 1);
+    }
+
+    /**
+     * Takes a token at {@code now} ({@link System#nanoTime()}). Returns 0 when
+     * one was available, otherwise the nanoseconds until the next one; a
+     * refused request takes nothing.
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now);
+            long wait = next - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Whether the bucket is full again, so dropping it loses nothing. */
+    public boolean isFull(long now) {
+        return arrival.get() <= now;
+    }
+}
@@ -0,0 +1,34 @@
+package mtzg.carlos.server.utils;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+public class TracingUtils {
+
+    public static final String STAGE_METRIC_NAME = "app.stage";
+
+    private TracingUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Runs one stage of a larger operation (a lookup, a disk write, a flush)
+     * as its own observation: a child span named after the stage and an
+     * {@code app.stage} timer tagged with it.
+     */
+    public static <T, E extends Throwable> T stage(ObservationRegistry registry, String name,
+            Observation.CheckedCallable<T, E> action) throws E {
+        return Observation.createNotStarted(STAGE_METRIC_NAME, registry)
+                .contextualName(name)
+                .lowCardinalityKeyValue("stage", name)
+                .observeChecked(action);
+    }
+
+    public static <E extends Throwable> void stage(ObservationRegistry registry, String name,
+            Observation.CheckedRunnable<E> action) throws E {
+        Observation.createNotStarted(STAGE_METRIC_NAME, registry)
+                .contextualName(name)
+                .lowCardinalityKeyValue("stage", name)
+                .observeChecked(action);
+    }
+}
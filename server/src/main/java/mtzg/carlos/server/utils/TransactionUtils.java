@@ -0,0 +1,28 @@
+package mtzg.carlos.server.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+    private TransactionUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Runs the action once the current transaction commits, or immediately when
+     * no transaction is active. Used to keep in-memory indexes in step with the
+     * database without exposing rolled-back writes.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
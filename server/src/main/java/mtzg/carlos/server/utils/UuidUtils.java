@@ -0,0 +1,36 @@
+package mtzg.carlos.server.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class UuidUtils {
+    private UuidUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // Unix milliseconds in the high bits, a 12-bit sequence in the low bits
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /**
+     * Generates a time-ordered UUIDv7 (RFC 9562). The leading 48 bits are the
+     * Unix timestamp in milliseconds, so consecutive ids land next to each other
+     * in a B-tree instead of at random pages. The 12-bit {@code rand_a} field
+     * is a counter that keeps ids strictly increasing within this process;
+     * when it overflows the timestamp is borrowed from the next millisecond.
+     * The remaining 62 bits are random.
+     */
+    public static UUID v7() {
+        long now = System.currentTimeMillis() << 12;
+        long state;
+        long next;
+        do {
+            state = LAST.get();
+            next = Math.max(now, state + 1);
+        } while (!LAST.compareAndSet(state, next));
+
+        long msb = ((next >>> 12) << 16) | 0x7000L | (next & 0xFFFL);
+        long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
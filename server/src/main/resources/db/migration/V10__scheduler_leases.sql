@@ -0,0 +1,11 @@
+-- Periodic jobs that only one node should run at a time; a node holds a lease until expires_at and renews it each run
+
+create table scheduler_leases (
+    name varchar(100) not null,
+    expires_at datetime(6) not null,
+    owner varchar(36),
+    primary key (name)
+) engine=InnoDB;
+
+insert into scheduler_leases (name, expires_at, owner)
+values ('inventory.reload', '1970-01-01 00:00:00', null);
@@ -0,0 +1,7 @@
+-- Every product and store has a normalized name once V11 has backfilled the rows created before V7
+
+alter table products
+   modify column normalized_name varchar(255) not null;
+
+alter table stores
+   modify column normalized_name varchar(255) not null;
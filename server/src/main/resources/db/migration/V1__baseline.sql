@@ -0,0 +1,125 @@
+-- Baseline: the schema Hibernate generated (ddl-auto=update) from the entities before migrations were introduced.
+-- Databases created that way are baselined at this version and skip it, so it must stay exactly that schema;
+-- everything added since goes in later versions.
+
+create table order_details (
+    id bigint not null auto_increment,
+    quantity integer not null,
+    total float(53) not null,
+    unit_price float(53) not null,
+    uuid binary(16) not null,
+    product_id bigint not null,
+    visit_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table products (
+    id bigint not null auto_increment,
+    base_price float(53) not null,
+    description varchar(255) not null,
+    name varchar(255) not null,
+    uuid binary(16) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table routes (
+    user_id bigint not null,
+    store_id bigint not null,
+    primary key (user_id, store_id)
+) engine=InnoDB;
+
+create table store_products (
+    product_id bigint not null,
+    store_id bigint not null,
+    primary key (product_id, store_id)
+) engine=InnoDB;
+
+create table stores (
+    id bigint not null auto_increment,
+    address varchar(255) not null,
+    latitude float(53) not null,
+    longitude float(53) not null,
+    name varchar(255) not null,
+    qr_code varchar(255),
+    uuid binary(16) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table user (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    role enum ('ADMIN','USER') not null,
+    uuid binary(16) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table visits (
+    id bigint not null auto_increment,
+    date date not null,
+    photo varchar(255),
+    uuid binary(16) not null,
+    validation bit not null,
+    store_id bigint not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table order_details
+   add constraint UKxt3jdp8hlwn8egfxfc6i3vdm unique (uuid);
+
+alter table products
+   add constraint UK5bwmhtkx7gs9gpuleug3k2wt7 unique (uuid);
+
+alter table stores
+   add constraint UKsnojwpscgwbt9xj5njydd2iit unique (uuid);
+
+alter table user
+   add constraint UKob8kqyqqgmefl0aco34akdtpe unique (email);
+
+alter table user
+   add constraint UK1xc1iry6gqjrvh5cpajiq7l2f unique (uuid);
+
+alter table visits
+   add constraint UK71w0ikx8n63kb2o94hp42aubj unique (uuid);
+
+alter table order_details
+   add constraint FK4q98utpd73imf4yhttm3w0eax
+   foreign key (product_id)
+   references products (id);
+
+alter table order_details
+   add constraint FK4n2iu0rq4ufwyon6slg8jw297
+   foreign key (visit_id)
+   references visits (id);
+
+alter table routes
+   add constraint FKb4t63emaccsbqgn9rxr6ma2o
+   foreign key (store_id)
+   references stores (id);
+
+alter table routes
+   add constraint FK7l8ilx6dq9oc8ifbspmwcbjtd
+   foreign key (user_id)
+   references user (id);
+
+alter table store_products
+   add constraint FKf7xjkv3of5tjf4cgn23ui8sre
+   foreign key (store_id)
+   references stores (id);
+
+alter table store_products
+   add constraint FK4h269080dgg4gx53cxukn7i3v
+   foreign key (product_id)
+   references products (id);
+
+alter table visits
+   add constraint FK1o0dlokc2n436v52cbxj7se1m
+   foreign key (store_id)
+   references stores (id);
+
+alter table visits
+   add constraint FKmfm2raqx6rwasfekfabf3584u
+   foreign key (user_id)
+   references user (id);
@@ -0,0 +1,37 @@
+-- Daily sales rollups per driver and per store and product, kept up to date as visits are registered and deleted
+
+create table daily_driver_sales (
+    id bigint not null auto_increment,
+    quantity bigint not null,
+    revenue float(53) not null,
+    sales_date date not null,
+    user_id bigint not null,
+    visit_count integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_daily_driver_sales_user
+   on daily_driver_sales (user_id, sales_date);
+
+alter table daily_driver_sales
+   add constraint uk_daily_driver_sales unique (sales_date, user_id);
+
+create table daily_store_product_sales (
+    id bigint not null auto_increment,
+    order_count integer not null,
+    product_id bigint not null,
+    quantity bigint not null,
+    revenue float(53) not null,
+    sales_date date not null,
+    store_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_daily_store_product_sales_store
+   on daily_store_product_sales (store_id, sales_date);
+
+create index idx_daily_store_product_sales_product
+   on daily_store_product_sales (product_id, sales_date);
+
+alter table daily_store_product_sales
+   add constraint uk_daily_store_product_sales unique (sales_date, store_id, product_id);
@@ -0,0 +1,21 @@
+-- Transactional outbox: events written with the change that caused them and dispatched in the background
+
+create table outbox_events (
+    id bigint not null auto_increment,
+    aggregate_uuid binary(16) not null,
+    attempts integer not null,
+    available_at datetime(6) not null,
+    created_at datetime(6) not null,
+    event_type varchar(100) not null,
+    last_error varchar(1000),
+    payload TEXT not null,
+    status enum ('FAILED','PENDING','PROCESSING') not null,
+    uuid binary(16) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_outbox_events_status_available
+   on outbox_events (status, available_at, id);
+
+alter table outbox_events
+   add constraint UK94wg2wlg0is2s2kwpqo4ej44j unique (uuid);
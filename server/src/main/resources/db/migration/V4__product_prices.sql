@@ -0,0 +1,12 @@
+-- Price history per product; the row in effect at an instant is the latest one not after it
+
+create table product_prices (
+    id bigint not null auto_increment,
+    effective_from datetime(6) not null,
+    price float(53) not null,
+    product_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table product_prices
+   add constraint uk_product_prices_product_effective unique (product_id, effective_from);
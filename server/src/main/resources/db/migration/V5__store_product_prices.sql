@@ -0,0 +1,16 @@
+-- Store-specific price overrides; a cleared override keeps its row with a null price
+
+create table store_product_prices (
+    id bigint not null auto_increment,
+    price_override float(53),
+    product_id bigint not null,
+    store_id bigint not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_store_product_prices_updated
+   on store_product_prices (updated_at);
+
+alter table store_product_prices
+   add constraint uk_store_product_prices unique (store_id, product_id);
@@ -0,0 +1,19 @@
+-- Stock per store and product: last count plus restocks, the last visit it reflects and the derived level
+
+create table store_inventory (
+    id bigint not null auto_increment,
+    baseline_quantity bigint not null,
+    baseline_visit_id bigint not null,
+    product_id bigint not null,
+    quantity bigint not null,
+    reorder_level integer not null,
+    store_id bigint not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_store_inventory_product
+   on store_inventory (product_id);
+
+alter table store_inventory
+   add constraint uk_store_inventory unique (store_id, product_id);
@@ -0,0 +1,14 @@
+-- Normalized (trimmed, case- and accent-folded) names for case-insensitive uniqueness. Existing rows are
+-- left null and filled in at startup (InitialConfig); MySQL allows any number of nulls under a unique key
+
+alter table products
+   add column normalized_name varchar(255);
+
+alter table stores
+   add column normalized_name varchar(255);
+
+alter table products
+   add constraint uk_products_normalized_name unique (normalized_name);
+
+alter table stores
+   add constraint uk_stores_normalized_name unique (normalized_name);
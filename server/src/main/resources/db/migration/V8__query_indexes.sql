@@ -0,0 +1,28 @@
+-- Composite indexes for the hot lookup paths. Each one leads with the foreign
+-- key column it extends, so InnoDB drops the single-column index it created for
+-- the constraint instead of keeping both.
+
+-- Driver history and daily rollup rebuilds filter visits by user and date
+create index idx_visits_user_date
+   on visits (user_id, date);
+
+-- Store history, and inventory levels, which read the visits of a store after its last count
+create index idx_visits_store_id
+   on visits (store_id, id);
+
+-- Date-range reporting across all drivers and stores
+create index idx_visits_date
+   on visits (date);
+
+-- Orders of a product joined back to their visit (product deletion checks, inventory levels)
+create index idx_order_details_product_visit
+   on order_details (product_id, visit_id);
+
+-- The primary key serves driver -> stores; this serves store -> drivers
+create index idx_routes_store_user
+   on routes (store_id, user_id);
+
+-- The primary key serves product -> stores; this serves store -> products,
+-- used by route listings, store detail and product assignment
+create index idx_store_products_store_product
+   on store_products (store_id, product_id);
@@ -0,0 +1,4 @@
+-- Other nodes read the price history incrementally from the latest effective_from they have seen
+
+create index idx_product_prices_effective
+   on product_prices (effective_from);
@@ -0,0 +1,82 @@
+package mtzg.carlos.server.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the backfill on the tables as V7 left them, with rows created before
+ * the column existed.
+ */
+class NormalizedNameBackfillTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:backfill;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        try (Statement statement = connection.createStatement()) {
+            for (String table : List.of("products", "stores")) {
+                statement.execute("create table " + table + " (id bigint not null, name varchar(255) not null, "
+                        + "normalized_name varchar(255), primary key (id), "
+                        + "constraint uk_" + table + "_normalized_name unique (normalized_name))");
+            }
+            statement.execute("insert into products (id, name, normalized_name) values "
+                    + "(1, 'Café', null), (2, 'Pan dulce', 'pan dulce'), (3, 'cafe ', null), "
+                    + "(4, 'CAFÉ', null), (5, 'Pan  Dulce', null), (6, 'Leche', null)");
+            statement.execute("insert into stores (id, name, normalized_name) values "
+                    + "(1, 'Abarrotes Lupita', 'abarrotes lupita'), (2, 'Abarrotes  lupita', null)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        connection.close();
+    }
+
+    @Test
+    void fillsEveryNameAndRenamesTheCollisions() throws Exception {
+        Context context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+
+        new V11__Backfill_normalized_names().migrate(context);
+
+        assertThat(rows("products")).containsExactly(
+                List.of("Café", "cafe"),
+                List.of("Pan dulce", "pan dulce"),
+                List.of("cafe  (2)", "cafe (2)"),
+                List.of("CAFÉ (3)", "cafe (3)"),
+                List.of("Pan  Dulce (2)", "pan dulce (2)"),
+                List.of("Leche", "leche"));
+        assertThat(rows("stores")).containsExactly(
+                List.of("Abarrotes Lupita", "abarrotes lupita"),
+                List.of("Abarrotes  lupita (2)", "abarrotes lupita (2)"));
+    }
+
+    private List<List<String>> rows(String table) throws Exception {
+        List<List<String>> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(
+                        "select name, normalized_name from " + table + " order by id")) {
+            while (result.next()) {
+                rows.add(List.of(result.getString(1), result.getString(2)));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,296 @@
+package mtzg.carlos.server.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import mtzg.carlos.server.modules.orders.OrderModel;
+import mtzg.carlos.server.modules.products.IProductRepository;
+import mtzg.carlos.server.modules.products.ProductModel;
+import mtzg.carlos.server.modules.stores.IStoreRepository;
+import mtzg.carlos.server.modules.stores.StoreModel;
+import mtzg.carlos.server.modules.users.IUserRepository;
+import mtzg.carlos.server.modules.users.Role;
+import mtzg.carlos.server.modules.users.UserModel;
+import mtzg.carlos.server.modules.visits.IVisitRepository;
+import mtzg.carlos.server.modules.visits.VisitModel;
+
+/**
+ * Calls the listing endpoints through the full filter chain with
+ * {@code sql.budget.enforce} on, with cold caches, and checks that each one
+ * stays within its budget from {@code sql.budget.endpoints}. The lazy-load
+ * tests make a repository touch an association the endpoint doesn't fetch,
+ * as an N+1 regression would, and expect the request to fail.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+class SqlStatementBudgetTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int DRIVERS = 4;
+    private static final int STORES = 6;
+    private static final int PRODUCTS = 4;
+    private static final int STORES_PER_DRIVER = 3;
+
+    private static String token;
+    private static UUID driverUuid;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @MockitoSpyBean
+    private IStoreRepository storeRepository;
+
+    @MockitoSpyBean
+    private IUserRepository userRepository;
+
+    @MockitoSpyBean
+    private IVisitRepository visitRepository;
+
+    @Value("${admin.email}")
+    private String adminEmail;
+
+    @Value("${admin.password}")
+    private String adminPassword;
+
+    @Value("${sql.budget.endpoints}")
+    private String endpoints;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        if (token == null) {
+            seed();
+            String login = mockMvc.perform(post("/api/v1/auth/authenticate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(MAPPER.writeValueAsString(Map.of("email", adminEmail, "password", adminPassword))))
+                    .andReturn().getResponse().getContentAsString();
+            token = MAPPER.readTree(login).path("token").asText();
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        cacheManager.getCache(CacheConfig.DRIVER_ROUTES).clear();
+    }
+
+    @Test
+    void visitsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/visits", "/api/v1/visits");
+    }
+
+    @Test
+    void storesStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/stores", "/api/v1/stores");
+    }
+
+    @Test
+    void usersStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/users", "/api/v1/users");
+    }
+
+    @Test
+    void deliveryManRouteStaysWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/stores/delivery-man/" + driverUuid, "/api/v1/stores/delivery-man/{uuid}");
+    }
+
+    // The filter runs before Spring Security, so the JWT filter's user lookup is one of them
+    @Test
+    void jwtUserLookupIsCounted() throws Exception {
+        assertThat(statements("/api/v1/users", "/api/v1/users")).isEqualTo(2);
+    }
+
+    @Test
+    void lazyLoadInVisitsFails() throws Exception {
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            List<VisitModel> visits = (List<VisitModel>) callRealMethod(visitRepository, invocation);
+            visits.forEach(visit -> visit.getStore().getVisits().size());
+            return visits;
+        }).when(visitRepository).findAllWithOrders();
+        assertBudgetExceeded("/api/v1/visits", "/api/v1/visits");
+    }
+
+    @Test
+    void lazyLoadInStoresFails() throws Exception {
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            List<StoreModel> stores = (List<StoreModel>) callRealMethod(storeRepository, invocation);
+            stores.forEach(store -> store.getVisits().size());
+            return stores;
+        }).when(storeRepository).findAll();
+        assertBudgetExceeded("/api/v1/stores", "/api/v1/stores");
+    }
+
+    @Test
+    void lazyLoadInUsersFails() throws Exception {
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            List<UserModel> users = (List<UserModel>) callRealMethod(userRepository, invocation);
+            users.forEach(user -> user.getVisits().size());
+            return users;
+        }).when(userRepository).findAllWithStores();
+        assertBudgetExceeded("/api/v1/users", "/api/v1/users");
+    }
+
+    @Test
+    void lazyLoadInDeliveryManRouteFails() throws Exception {
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = (List<Object[]>) callRealMethod(storeRepository, invocation);
+            rows.forEach(row -> ((StoreModel) row[0]).getVisits().size());
+            return rows;
+        }).when(storeRepository).findRouteProductUuidsByDriverUuid(driverUuid);
+        assertBudgetExceeded("/api/v1/stores/delivery-man/" + driverUuid, "/api/v1/stores/delivery-man/{uuid}");
+    }
+
+    // Spies on repository proxies reach the repository through their default answer
+    private static Object callRealMethod(Object spy, InvocationOnMock invocation) throws Throwable {
+        return Mockito.mockingDetails(spy).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+    }
+
+    private void assertWithinBudget(String path, String pattern) throws Exception {
+        assertThat(statements(path, pattern)).isPositive().isLessThanOrEqualTo(budget(pattern));
+    }
+
+    private void assertBudgetExceeded(String path, String pattern) throws Exception {
+        double exceeded = exceeded(pattern);
+        int status = mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getStatus();
+        assertThat(status).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        assertThat(exceeded(pattern)).isEqualTo(exceeded + 1);
+    }
+
+    // Statements the request ran, from the filter's own sql.statements summary
+    private long statements(String path, String pattern) throws Exception {
+        double before = summary(pattern);
+        int status = mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getStatus();
+        assertThat(status).isEqualTo(HttpStatus.OK.value());
+        return Math.round(summary(pattern) - before);
+    }
+
+    private double summary(String pattern) {
+        DistributionSummary summary = meterRegistry.find("sql.statements")
+                .tags("method", "GET", "uri", pattern)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private double exceeded(String pattern) {
+        Counter counter = meterRegistry.find("sql.budget.exceeded")
+                .tags("method", "GET", "uri", pattern)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private int budget(String pattern) {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : endpoints.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            budgets.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return budgets.get("GET " + pattern);
+    }
+
+    private void seed() {
+        List<StoreModel> stores = new ArrayList<>();
+        for (int i = 0; i < STORES; i++) {
+            stores.add(storeRepository.save(StoreModel.builder()
+                    .uuid(UUID.randomUUID())
+                    .name("Budget store " + i)
+                    .address("Address " + i)
+                    .latitude(18.85 + i / 100.0)
+                    .longitude(-99.22)
+                    .build()));
+        }
+        List<ProductModel> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(productRepository.save(ProductModel.builder()
+                    .uuid(UUID.randomUUID())
+                    .name("Budget product " + i)
+                    .description("Description " + i)
+                    .basePrice(10 + i)
+                    .stores(new HashSet<>(stores))
+                    .build()));
+        }
+        for (int i = 0; i < DRIVERS; i++) {
+            Set<StoreModel> route = new HashSet<>();
+            for (int j = 0; j < STORES_PER_DRIVER; j++) {
+                route.add(stores.get((i + j) % STORES));
+            }
+            UUID uuid = UUID.randomUUID();
+            UserModel driver = userRepository.save(UserModel.builder()
+                    .uuid(uuid)
+                    .name("Budget driver " + i)
+                    .email(uuid + "@budget.test")
+                    .password("password")
+                    .role(Role.USER)
+                    .stores(route)
+                    .build());
+            driverUuid = uuid;
+            for (StoreModel store : route) {
+                VisitModel visit = VisitModel.builder()
+                        .uuid(UUID.randomUUID())
+                        .date(LocalDate.now())
+                        .validation(true)
+                        .user(driver)
+                        .store(store)
+                        .orders(new HashSet<>())
+                        .build();
+                for (ProductModel product : products.subList(0, 2)) {
+                    visit.getOrders().add(OrderModel.builder()
+                            .uuid(UUID.randomUUID())
+                            .quantity(2)
+                            .unitPrice(product.getBasePrice())
+                            .total(2 * product.getBasePrice())
+                            .visit(visit)
+                            .product(product)
+                            .build());
+                }
+                visitRepository.save(visit);
+            }
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package mtzg.carlos.server.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import mtzg.carlos.server.ServerApplication;
+import mtzg.carlos.server.config.LoadTestSeedConfig;
+
+/**
+ * End-to-end load test replaying the PWA's traffic. Run with:
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=mtzg.carlos.server.loadtest.LoadTest
+ * </pre>
+ *
+ * Without {@code loadtest.url} it boots the server in-process with the
+ * {@code loadtest} profile on an in-memory H2 database in MySQL mode, so
+ * every run starts from the same seeded data. With
+ * {@code -Dloadtest.url=http://host:82} it drives a running node instead,
+ * which must have been started with {@code SPRING_PROFILES_ACTIVE=loadtest}
+ * and the same {@code loadtest.*} settings (use a scratch database: visits
+ * pile up between runs).
+ *
+ * Each step in {@code loadtest.steps} (default 10,25,50) runs that many
+ * drivers at once. A driver logs in (the whole step at the same instant, like
+ * a shift starting), loads its route with products, syncs the catalog, then
+ * registers a visit with a photo at every store of its route, reloading the
+ * route every {@code loadtest.resync-every} visits the way the dashboard
+ * does. Meanwhile {@code loadtest.admins} admins page through the visit,
+ * store, product and user listings {@code loadtest.admin-rounds} times.
+ * Orders, quantities and photos come from {@code loadtest.seed}. Requests
+ * shed with {@code 429} by the rate limiter count as errors. Throughput
+ * and latency percentiles per endpoint are printed and written to
+ * {@code target/loadtest-result.json}.
+ */
+public class LoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String BOUNDARY = "----loadtest-boundary";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final long seed = Long.getLong("loadtest.seed", 42);
+    private final int resyncEvery = Integer.getInteger("loadtest.resync-every", 5);
+    private final int admins = Integer.getInteger("loadtest.admins", 2);
+    private final int adminRounds = Integer.getInteger("loadtest.admin-rounds", 5);
+    private final String driverPassword = System.getProperty("loadtest.password", "@Driver1234");
+    private final String adminEmail = System.getProperty("loadtest.admin-email", "admin@mail.com");
+    private final String adminPassword = System.getProperty("loadtest.admin-password", "@Admin1234");
+    private final byte[] photo;
+
+    private LoadTestStats stats;
+
+    LoadTest(String baseUrl) {
+        this.baseUrl = baseUrl + "/api/v1";
+        // A phone camera JPEG after the PWA's compression, same bytes every run
+        SplittableRandom random = new SplittableRandom(seed);
+        photo = new byte[Integer.getInteger("loadtest.photo-kb", 120) * 1024];
+        for (int i = 0; i < photo.length; i++) {
+            photo[i] = (byte) random.nextInt(256);
+        }
+        photo[0] = (byte) 0xFF;
+        photo[1] = (byte) 0xD8;
+        photo[photo.length - 2] = (byte) 0xFF;
+        photo[photo.length - 1] = (byte) 0xD9;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] steps = parseSteps(System.getProperty("loadtest.steps", "10,25,50"));
+        int drivers = Integer.getInteger("loadtest.drivers", steps[steps.length - 1]);
+        if (steps[steps.length - 1] > drivers) {
+            throw new IllegalArgumentException("loadtest.drivers must cover the largest step");
+        }
+
+        String url = System.getProperty("loadtest.url");
+        ConfigurableApplicationContext context = null;
+        if (url == null) {
+            context = startServer(drivers);
+            url = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        try {
+            LoadTest loadTest = new LoadTest(url);
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (int step : steps) {
+                results.add(loadTest.runStep(step));
+            }
+            Path output = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), Map.of("steps", results));
+            System.out.println("Results written to " + output);
+        } finally {
+            if (context != null) {
+                SpringApplication.exit(context);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startServer(int drivers) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Visit photos are written under user.dir; keep them out of the source tree
+        Path workDir = Path.of("target", "loadtest").toAbsolutePath();
+        Files.createDirectories(workDir);
+        System.setProperty("user.dir", workDir.toString());
+
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--server.ssl.enabled=false",
+                "--db.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "--db.username=sa",
+                "--db.password=",
+                "--spring.jpa.properties.hibernate.type.preferred_uuid_jdbc_type=BINARY",
+                "--spring.jpa.show-sql=false",
+                "--sql.budget.enforce=false",
+                "--sql.budget.log-violations=false",
+                // The admins share one account, so per-endpoint limits would throttle their paging
+                "--rate-limit.endpoints=",
+                "--loadtest.drivers=" + drivers));
+        for (String key : List.of("seed", "stores", "products", "products-per-store", "stores-per-driver",
+                "password")) {
+            String value = System.getProperty("loadtest." + key);
+            if (value != null) {
+                args.add("--loadtest." + key + "=" + value);
+            }
+        }
+        return SpringApplication.run(ServerApplication.class, args.toArray(String[]::new));
+    }
+
+    private Map<String, Object> runStep(int drivers) throws Exception {
+        stats = new LoadTestStats();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(drivers + admins);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int d = 0; d < drivers; d++) {
+                int driver = d;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    driverShift(driver);
+                    return null;
+                }));
+            }
+            for (int a = 0; a < admins; a++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    adminSession();
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            return report(drivers, seconds);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void driverShift(int driver) throws Exception {
+        SplittableRandom random = new SplittableRandom(seed * 31 + driver);
+        String token = login(String.format(LoadTestSeedConfig.DRIVER_EMAIL, driver), driverPassword);
+        if (token == null) {
+            return;
+        }
+        String userUuid = claim(token, "uuid");
+
+        JsonNode route = get("GET /stores/delivery-man/{uuid}",
+                "/stores/delivery-man/" + userUuid + "?include=products", token);
+        get("GET /products", "/products", token);
+        get("GET /stores?include=products", "/stores?include=products", token);
+        if (route == null) {
+            return;
+        }
+
+        int visits = 0;
+        for (JsonNode store : route.path("data")) {
+            postVisit(token, userUuid, store, random);
+            if (++visits % resyncEvery == 0) {
+                get("GET /stores/delivery-man/{uuid}", "/stores/delivery-man/" + userUuid + "?include=products",
+                        token);
+            }
+        }
+    }
+
+    private void adminSession() throws Exception {
+        String token = login(adminEmail, adminPassword);
+        if (token == null) {
+            return;
+        }
+        for (int round = 0; round < adminRounds; round++) {
+            get("GET /visits", "/visits", token);
+            get("GET /stores", "/stores", token);
+            get("GET /products", "/products", token);
+            get("GET /users", "/users", token);
+        }
+    }
+
+    private String login(String email, String password) throws Exception {
+        JsonNode body = send("POST /auth/authenticate", HttpRequest.newBuilder(URI.create(baseUrl + "/auth/authenticate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(
+                        Map.of("email", email, "password", password))))
+                .build());
+        return body == null ? null : body.path("token").asText(null);
+    }
+
+    private JsonNode get(String endpoint, String path, String token) throws Exception {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build());
+    }
+
+    private void postVisit(String token, String userUuid, JsonNode store, SplittableRandom random) throws Exception {
+        JsonNode products = store.path("products");
+        List<Map<String, Object>> orders = new ArrayList<>();
+        int lines = Math.min(products.size(), random.nextInt(3, 9));
+        int first = products.size() == 0 ? 0 : random.nextInt(products.size());
+        for (int i = 0; i < lines; i++) {
+            orders.add(Map.of(
+                    "productUuid", products.get((first + i) % products.size()).path("uuid").asText(),
+                    "quantity", random.nextInt(1, 13)));
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        field(body, "userUuid", userUuid);
+        field(body, "storeUuid", store.path("uuid").asText());
+        field(body, "validation", "true");
+        field(body, "ordersJson", MAPPER.writeValueAsString(orders));
+        body.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"photo\"; filename=\"visit-photo.jpg\""
+                + "\r\nContent-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(photo);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        send("POST /visits", HttpRequest.newBuilder(URI.create(baseUrl + "/visits"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build());
+    }
+
+    private static void field(ByteArrayOutputStream body, String name, String value) {
+        body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value
+                + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Sends the request and records its latency; returns the JSON body of a 2xx response, otherwise null. */
+    private JsonNode send(String endpoint, HttpRequest request) throws Exception {
+        long begin = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(endpoint, System.nanoTime() - begin, false);
+            return null;
+        }
+        boolean ok = response.statusCode() / 100 == 2;
+        stats.record(endpoint, System.nanoTime() - begin, ok);
+        return ok ? MAPPER.readTree(response.body()) : null;
+    }
+
+    private Map<String, Object> report(int drivers, double seconds) {
+        Map<String, Map<String, Number>> endpoints = stats.summary(seconds);
+        System.out.printf("%n%d drivers, %d admins: %d requests in %.1f s (%.1f req/s), %d errors%n", drivers, admins,
+                stats.total(), seconds, stats.total() / seconds, stats.errors());
+        System.out.printf("%-34s %7s %6s %8s %8s %8s %8s %8s %8s%n", "endpoint", "count", "errors", "req/s", "p50 ms",
+                "p90 ms", "p95 ms", "p99 ms", "max ms");
+        endpoints.forEach((endpoint, row) -> System.out.printf("%-34s %7d %6d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                endpoint, row.get("count").intValue(), row.get("errors").intValue(),
+                row.get("throughput").doubleValue(), row.get("p50").doubleValue(), row.get("p90").doubleValue(),
+                row.get("p95").doubleValue(), row.get("p99").doubleValue(), row.get("max").doubleValue()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("drivers", drivers);
+        result.put("admins", admins);
+        result.put("seconds", Math.round(seconds * 10) / 10.0);
+        result.put("requests", stats.total());
+        result.put("errors", stats.errors());
+        result.put("throughput", Math.round(stats.total() / seconds * 10) / 10.0);
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    private static String claim(String token, String name) throws Exception {
+        String payload = token.split("\\.")[1];
+        return MAPPER.readTree(Base64.getUrlDecoder().decode(payload)).path(name).asText();
+    }
+
+    private static int[] parseSteps(String steps) {
+        int[] parsed = Arrays.stream(steps.split(",")).map(String::trim).mapToInt(Integer::parseInt)
+                .sorted().toArray();
+        if (parsed.length == 0) {
+            throw new IllegalArgumentException("loadtest.steps is empty");
+        }
+        return parsed;
+    }
+}
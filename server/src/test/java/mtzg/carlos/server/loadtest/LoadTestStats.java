@@ -0,0 +1,66 @@
+package mtzg.carlos.server.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies of one load-test step, per endpoint. Every sample is kept, so
+ * the percentiles are exact rather than bucketed.
+ */
+class LoadTestStats {
+
+    private static final double[] PERCENTILES = { 50, 90, 95, 99 };
+
+    private final Map<String, Samples> endpoints = new TreeMap<>();
+
+    private static final class Samples {
+        long[] nanos = new long[1024];
+        int count;
+        int errors;
+    }
+
+    synchronized void record(String endpoint, long nanos, boolean ok) {
+        Samples samples = endpoints.computeIfAbsent(endpoint, key -> new Samples());
+        if (samples.count == samples.nanos.length) {
+            samples.nanos = Arrays.copyOf(samples.nanos, samples.count * 2);
+        }
+        samples.nanos[samples.count++] = nanos;
+        if (!ok) {
+            samples.errors++;
+        }
+    }
+
+    /** Endpoint -> count, errors, requests per second, then percentiles and max in milliseconds. */
+    synchronized Map<String, Map<String, Number>> summary(double seconds) {
+        Map<String, Map<String, Number>> summary = new LinkedHashMap<>();
+        endpoints.forEach((endpoint, samples) -> {
+            long[] sorted = Arrays.copyOf(samples.nanos, samples.count);
+            Arrays.sort(sorted);
+            Map<String, Number> row = new LinkedHashMap<>();
+            row.put("count", samples.count);
+            row.put("errors", samples.errors);
+            row.put("throughput", round(samples.count / seconds));
+            for (double percentile : PERCENTILES) {
+                int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+                row.put("p" + (int) percentile, round(sorted[Math.max(index, 0)] / 1e6));
+            }
+            row.put("max", round(sorted[sorted.length - 1] / 1e6));
+            summary.put(endpoint, row);
+        });
+        return summary;
+    }
+
+    synchronized int total() {
+        return endpoints.values().stream().mapToInt(samples -> samples.count).sum();
+    }
+
+    synchronized int errors() {
+        return endpoints.values().stream().mapToInt(samples -> samples.errors).sum();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,190 @@
+package mtzg.carlos.server.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares how fast builds of the server start and how much memory they
+ * hold, typically the JVM jar against the native image. Run with:
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=mtzg.carlos.server.loadtest.StartupComparison \
+ *     -Dstartup.commands="jvm=java -jar target/spring_security-0.0.1-SNAPSHOT.jar;native=target/server" \
+ *     -Dstartup.args="--db.host=localhost --db.password=secret"
+ * </pre>
+ *
+ * Every command in {@code startup.commands} ({@code name=command;...}) is
+ * started {@code startup.runs} times (default 3) with {@code startup.args},
+ * on {@code startup.port} with SSL off, so all of them use the same database
+ * and settings. A run measures the time from launching the process until
+ * {@code /actuator/health/readiness} is UP, the first login
+ * ({@code startup.email} / {@code startup.password}), and
+ * {@code startup.requests} catalog reads after it. Resident memory comes
+ * from {@code /proc} (Linux only) when ready, after the reads, and at its
+ * peak, so the command must run the server itself rather than a wrapper
+ * script. Medians per command are printed and written to
+ * {@code target/startup-result.json}; each run's output goes to
+ * {@code target/startup-<name>-<run>.log}.
+ */
+public class StartupComparison {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private final int port = Integer.getInteger("startup.port", 18090);
+    private final int requests = Integer.getInteger("startup.requests", 200);
+    private final long timeoutSeconds = Long.getLong("startup.timeout-seconds", 300);
+    private final String email = System.getProperty("startup.email", "admin@mail.com");
+    private final String password = System.getProperty("startup.password", "@Admin1234");
+    private final List<String> args = split(System.getProperty("startup.args", ""));
+
+    public static void main(String[] arguments) throws Exception {
+        String commands = System.getProperty("startup.commands");
+        if (commands == null) {
+            throw new IllegalArgumentException("Set startup.commands, e.g. \"jvm=java -jar app.jar;native=./server\"");
+        }
+        int runs = Integer.getInteger("startup.runs", 3);
+        StartupComparison comparison = new StartupComparison();
+
+        Map<String, Map<String, Double>> results = new LinkedHashMap<>();
+        for (String entry : commands.split(";")) {
+            int separator = entry.indexOf('=');
+            String name = entry.substring(0, separator).trim();
+            List<String> command = split(entry.substring(separator + 1));
+            List<Map<String, Double>> samples = new ArrayList<>();
+            for (int run = 1; run <= runs; run++) {
+                samples.add(comparison.measure(name, run, command));
+                System.out.printf("%s run %d: %s%n", name, run, samples.get(samples.size() - 1));
+            }
+            results.put(name, median(samples));
+        }
+
+        System.out.printf("%n%-12s %10s %10s %10s %10s %10s %10s%n", "build", "ready ms", "login ms", "reads ms",
+                "ready MB", "loaded MB", "peak MB");
+        results.forEach((name, row) -> System.out.printf("%-12s %10.0f %10.0f %10.0f %10.1f %10.1f %10.1f%n", name,
+                row.get("readyMs"), row.get("loginMs"), row.get("readsMs"), row.get("rssReadyMb"),
+                row.get("rssLoadedMb"), row.get("rssPeakMb")));
+
+        Path output = Path.of(System.getProperty("startup.result", "target/startup-result.json"));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output);
+    }
+
+    private Map<String, Double> measure(String name, int run, List<String> command) throws Exception {
+        List<String> line = new ArrayList<>(command);
+        line.addAll(args);
+        line.add("--server.port=" + port);
+        line.add("--server.ssl.enabled=false");
+        Path log = Path.of("target", "startup-" + name + "-" + run + ".log");
+        Files.createDirectories(log.toAbsolutePath().getParent());
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(line)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            String base = "http://localhost:" + port;
+            long deadline = started + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            while (status(base + "/actuator/health/readiness") != 200) {
+                if (!process.isAlive() || System.nanoTime() > deadline) {
+                    throw new IllegalStateException(name + " did not become ready, see " + log);
+                }
+                Thread.sleep(20);
+            }
+            Map<String, Double> sample = new LinkedHashMap<>();
+            sample.put("readyMs", millis(started));
+            sample.put("rssReadyMb", memory(process, "VmRSS"));
+
+            long loginStarted = System.nanoTime();
+            HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(base + "/api/v1/auth/authenticate"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(
+                            Map.of("email", email, "password", password))))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            sample.put("loginMs", millis(loginStarted));
+            String token = MAPPER.readTree(login.body()).path("token").asText(null);
+            if (token == null) {
+                throw new IllegalStateException(name + " login failed: " + login.body());
+            }
+
+            long readsStarted = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                String path = i % 2 == 0 ? "/api/v1/products" : "/api/v1/stores";
+                client.send(HttpRequest.newBuilder(URI.create(base + path))
+                        .header("Authorization", "Bearer " + token)
+                        .build(), HttpResponse.BodyHandlers.discarding());
+            }
+            sample.put("readsMs", millis(readsStarted));
+            sample.put("rssLoadedMb", memory(process, "VmRSS"));
+            sample.put("rssPeakMb", memory(process, "VmHWM"));
+            return sample;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private int status(String url) {
+        try {
+            return client.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    // "VmRSS:    123456 kB" in /proc/<pid>/status
+    private static double memory(Process process, String field) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return Double.NaN;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith(field + ":")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) / 1024.0;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static Map<String, Double> median(List<Map<String, Double>> samples) {
+        Map<String, Double> median = new LinkedHashMap<>();
+        for (String key : samples.get(0).keySet()) {
+            double[] values = samples.stream().mapToDouble(sample -> sample.get(key)).sorted().toArray();
+            median.put(key, Math.round(values[values.length / 2] * 10) / 10.0);
+        }
+        return median;
+    }
+
+    private static double millis(long started) {
+        return (System.nanoTime() - started) / 1e6;
+    }
+
+    private static List<String> split(String command) {
+        return Arrays.stream(command.trim().split("\\s+")).filter(part -> !part.isEmpty()).toList();
+    }
+}
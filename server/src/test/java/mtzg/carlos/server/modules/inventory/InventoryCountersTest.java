@@ -0,0 +1,138 @@
+package mtzg.carlos.server.modules.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import mtzg.carlos.server.modules.inventory.InventoryCounters.Level;
+
+class InventoryCountersTest {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final InventoryCounters counters = new InventoryCounters(jdbcTemplate, 60_000);
+
+    // Rows the next query returns: [store id, product id, derived quantity, stored quantity, reorder level]
+    private final List<long[]> rows = new ArrayList<>();
+    // Runs while the query is in flight, after the adjustments so far were noted
+    private Runnable duringQuery = () -> {
+    };
+
+    InventoryCountersTest() {
+        doAnswer(invocation -> answer(invocation.getArgument(1))).when(jdbcTemplate)
+                .query(anyString(), any(RowCallbackHandler.class));
+        doAnswer(invocation -> answer(invocation.getArgument(2))).when(jdbcTemplate)
+                .query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.update(anyString(), any(SqlParameterSource.class))).thenReturn(1);
+    }
+
+    @Test
+    void levelsAddThisNodesAdjustmentsToTheLastRead() {
+        rows.add(new long[] { 1, 10, 20, 20, 5 });
+        rows.add(new long[] { 1, 11, 8, 8, 5 });
+        rows.add(new long[] { 2, 10, 3, 3, 5 });
+        counters.reload();
+
+        counters.add(1L, 10L, -12);
+        counters.applyVisit(1L, Map.of(11L, 2L), -1);
+        counters.applyVisit(1L, Map.of(11L, 1L), 1);
+
+        assertThat(counters.levels(1L, false)).containsExactlyInAnyOrder(new Level(1L, 10L, 8, 5),
+                new Level(1L, 11L, 7, 5));
+        assertThat(counters.levels(null, true)).containsExactly(new Level(2L, 10L, 3, 5));
+    }
+
+    @Test
+    void adjustmentsToUnknownLevelsAreIgnored() {
+        counters.add(1L, 10L, -3);
+
+        assertThat(counters.levels(null, false)).isEmpty();
+    }
+
+    @Test
+    void refreshFoldsInTheAdjustmentsTheReadAlreadyReflects() {
+        rows.add(new long[] { 1, 10, 20, 20, 5 });
+        counters.reload();
+        counters.add(1L, 10L, -4);
+        assertThat(counters.levels(1L, false)).containsExactly(new Level(1L, 10L, 16, 5));
+
+        // The visit behind the -4 committed, so the database has it too
+        rows.set(0, new long[] { 1, 10, 16, 20, 5 });
+        counters.flush();
+        assertThat(counters.levels(1L, false)).containsExactly(new Level(1L, 10L, 16, 5));
+
+        // One more visit lands while the level is being read, after the read started
+        rows.set(0, new long[] { 1, 10, 13, 16, 5 });
+        counters.add(1L, 10L, -3);
+        duringQuery = () -> counters.add(1L, 10L, -1);
+        counters.flush();
+        assertThat(counters.levels(1L, false)).containsExactly(new Level(1L, 10L, 12, 5));
+    }
+
+    @Test
+    void onlyChangedLevelsAreWritten() {
+        rows.add(new long[] { 1, 10, 20, 20, 5 });
+        rows.add(new long[] { 1, 11, 7, 8, 5 });
+
+        counters.reload();
+
+        ArgumentCaptor<SqlParameterSource[]> written = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(anyString(), written.capture());
+        assertThat(written.getValue()).hasSize(1);
+        assertThat(written.getValue()[0].getValue("productId")).isEqualTo(11L);
+        assertThat(written.getValue()[0].getValue("quantity")).isEqualTo(7L);
+    }
+
+    @Test
+    void reloadOnlyWritesOnTheNodeHoldingTheLease() {
+        rows.add(new long[] { 1, 10, 7, 8, 5 });
+        when(jdbcTemplate.update(anyString(), any(SqlParameterSource.class))).thenReturn(0);
+
+        counters.reload();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        assertThat(counters.levels(1L, false)).containsExactly(new Level(1L, 10L, 7, 5));
+    }
+
+    @Test
+    void reloadDropsLevelsThatAreGone() {
+        rows.add(new long[] { 1, 10, 20, 20, 5 });
+        rows.add(new long[] { 1, 11, 8, 8, 5 });
+        counters.reload();
+
+        rows.remove(1);
+        counters.reload();
+
+        assertThat(counters.levels(null, false)).containsExactly(new Level(1L, 10L, 20, 5));
+    }
+
+    private Object answer(RowCallbackHandler handler) throws SQLException {
+        duringQuery.run();
+        for (long[] row : rows) {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getLong("store_id")).thenReturn(row[0]);
+            when(resultSet.getLong("product_id")).thenReturn(row[1]);
+            when(resultSet.getLong("quantity")).thenReturn(row[2]);
+            when(resultSet.getLong("stored_quantity")).thenReturn(row[3]);
+            when(resultSet.getInt("reorder_level")).thenReturn((int) row[4]);
+            handler.processRow(resultSet);
+        }
+        return null;
+    }
+}
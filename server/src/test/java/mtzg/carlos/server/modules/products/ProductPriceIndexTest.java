@@ -0,0 +1,95 @@
+package mtzg.carlos.server.modules.products;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mtzg.carlos.server.modules.storeproducts.StorePricingEngine;
+import mtzg.carlos.server.modules.stores.IStoreRepository;
+import mtzg.carlos.server.modules.stores.StoreModel;
+
+/**
+ * Writes price history directly to the database, the way another node's
+ * writes look from this one.
+ */
+@SpringBootTest
+@ActiveProfiles("it")
+class ProductPriceIndexTest {
+
+    @Autowired
+    private ProductPriceIndex productPriceIndex;
+
+    @Autowired
+    private StorePricingEngine pricingEngine;
+
+    @Autowired
+    private IProductPriceRepository productPriceRepository;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private IStoreRepository storeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recordedPricesAreStampedByTheDatabase() {
+        ProductModel product = product();
+
+        ProductPriceModel price = productPriceRepository.save(ProductPriceModel.builder()
+                .productId(product.getId())
+                .price(12)
+                .build());
+
+        assertThat(price.getEffectiveFrom()).isNotNull().isEqualTo(jdbcTemplate.queryForObject(
+                "SELECT effective_from FROM product_prices WHERE id = ?", LocalDateTime.class, price.getId()));
+    }
+
+    @Test
+    void pricesWrittenElsewhereArePickedUpByTheRefresh() {
+        ProductModel product = product();
+        Long storeId = storeRepository.save(StoreModel.builder()
+                .uuid(UUID.randomUUID())
+                .name("Price index store " + UUID.randomUUID())
+                .address("Address")
+                .latitude(18.85)
+                .longitude(-99.22)
+                .build()).getId();
+        assertThat(pricingEngine.priceFor(storeId, product, LocalDateTime.now())).isEqualTo(10);
+
+        insertPrice(product, 12);
+        productPriceIndex.refresh();
+        assertThat(pricingEngine.priceFor(storeId, product, LocalDateTime.now())).isEqualTo(12);
+
+        insertPrice(product, 15);
+        assertThat(pricingEngine.priceFor(storeId, product, LocalDateTime.now())).isEqualTo(12);
+        productPriceIndex.refresh();
+        assertThat(pricingEngine.priceFor(storeId, product, LocalDateTime.now())).isEqualTo(15);
+        assertThat(productPriceIndex.priceAt(product.getId(), LocalDateTime.now())).isEqualTo(15);
+    }
+
+    private void insertPrice(ProductModel product, double price) {
+        jdbcTemplate.update("INSERT INTO product_prices (product_id, price, effective_from) "
+                + "VALUES (?, ?, CURRENT_TIMESTAMP(6))", product.getId(), price);
+    }
+
+    private ProductModel product() {
+        return productRepository.save(ProductModel.builder()
+                .uuid(UUID.randomUUID())
+                .name("Price index product " + UUID.randomUUID())
+                .description("Description")
+                .basePrice(10)
+                .stores(new HashSet<>())
+                .build());
+    }
+}
@@ -0,0 +1,149 @@
+package mtzg.carlos.server.modules.products;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import mtzg.carlos.server.modules.products.ProductSearchIndex.Hit;
+
+class ProductSearchIndexTest {
+
+    private final IProductRepository productRepository = mock(IProductRepository.class);
+    private final ProductSearchIndex index = new ProductSearchIndex(productRepository);
+    private long nextId = 1;
+
+    @Test
+    void tokenizeFoldsCaseAndAccentsAndDropsStopwords() {
+        assertThat(ProductSearchIndex.tokenize("Café con LECHE de Montaña", false))
+                .containsExactly("cafe", "leche", "montana");
+        assertThat(ProductSearchIndex.tokenize("  ", false)).isEmpty();
+        assertThat(ProductSearchIndex.tokenize(null, false)).isEmpty();
+    }
+
+    @Test
+    void tokenizeFoldsPluralsAndKeepsTheSurfaceFormWhenIndexing() {
+        assertThat(ProductSearchIndex.tokenize("Limones galletas 12s", false))
+                .containsExactly("limon", "galleta", "12s");
+        assertThat(ProductSearchIndex.tokenize("Limones", true)).containsExactly("limon", "limones");
+    }
+
+    @Test
+    void matchesRegardlessOfAccentsAndCase() {
+        ProductModel sugar = product("Azúcar morena", "Bolsa de un kilo");
+
+        assertThat(uuids(index.search("AZUCAR", 10))).containsExactly(sugar.getUuid());
+        assertThat(uuids(index.search("azúcar", 10))).containsExactly(sugar.getUuid());
+    }
+
+    @Test
+    void matchesPrefixesOfTwoLettersOrMore() {
+        ProductModel cookies = product("Galletas de chocolate", "Paquete familiar");
+        ProductModel lemons = product("Limones", "Por kilo");
+
+        assertThat(uuids(index.search("gall", 10))).containsExactly(cookies.getUuid());
+        // A partially typed plural still matches through the unstemmed form
+        assertThat(uuids(index.search("limone", 10))).containsExactly(lemons.getUuid());
+        assertThat(index.search("g", 10)).isEmpty();
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        ProductModel water = product("Agua mineral", "Botella de vidrio");
+        product("Agua natural", "Garrafón");
+
+        assertThat(uuids(index.search("agua min", 10))).containsExactly(water.getUuid());
+        assertThat(index.search("agua refresco", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        ProductModel yogurt = product("Yogur natural", "Hecho con leche entera");
+        ProductModel milk = product("Leche entera", "Un litro");
+
+        assertThat(uuids(index.search("leche", 10))).containsExactly(milk.getUuid(), yogurt.getUuid());
+    }
+
+    @Test
+    void ranksExactTermsAboveLongerOnes() {
+        ProductModel panela = product("Panela", "Piloncillo");
+        ProductModel bread = product("Pan", "Bolillo");
+
+        assertThat(uuids(index.search("pan", 10))).containsExactly(bread.getUuid(), panela.getUuid());
+    }
+
+    @Test
+    void breaksTiesByTheShorterNameAndKeepsTheLimit() {
+        ProductModel longest = product("Sal de mar fina", "Sal");
+        ProductModel shortest = product("Sal fina", "Sal");
+        ProductModel middle = product("Sal de grano", "Sal");
+
+        List<Hit> hits = index.search("sal", 2);
+
+        assertThat(uuids(hits)).containsExactly(shortest.getUuid(), middle.getUuid());
+        assertThat(uuids(index.search("sal", 10))).containsExactly(shortest.getUuid(), middle.getUuid(),
+                longest.getUuid());
+    }
+
+    @Test
+    void removedProductsAreNotFound() {
+        ProductModel rice = product("Arroz", "Grano largo");
+
+        index.remove(rice.getId());
+
+        assertThat(index.search("arroz", 10)).isEmpty();
+    }
+
+    @Test
+    void loadPicksUpProductsWrittenElsewhere() {
+        ProductModel kept = model("Frijol negro", "Bolsa");
+        ProductModel edited = model("Frijol bayo", "Bolsa");
+        ProductModel deleted = model("Frijol pinto", "Bolsa");
+        when(productRepository.findAllSearchFields()).thenReturn(rows(kept, edited, deleted));
+        index.load();
+        assertThat(index.search("frijol", 10)).hasSize(3);
+
+        ProductModel created = model("Frijol peruano", "Bolsa");
+        edited.setName("Lenteja");
+        when(productRepository.findAllSearchFields()).thenReturn(rows(kept, edited, created));
+        index.load();
+
+        assertThat(uuids(index.search("frijol", 10))).containsExactlyInAnyOrder(kept.getUuid(), created.getUuid());
+        assertThat(uuids(index.search("lenteja", 10))).containsExactly(edited.getUuid());
+        assertThat(index.search("pinto", 10)).isEmpty();
+    }
+
+    private ProductModel product(String name, String description) {
+        ProductModel product = model(name, description);
+        index.put(product);
+        return product;
+    }
+
+    private ProductModel model(String name, String description) {
+        return ProductModel.builder()
+                .id(nextId++)
+                .uuid(UUID.randomUUID())
+                .name(name)
+                .description(description)
+                .basePrice(10)
+                .build();
+    }
+
+    private static List<Object[]> rows(ProductModel... products) {
+        List<Object[]> rows = new ArrayList<>();
+        for (ProductModel product : products) {
+            rows.add(new Object[] { product.getId(), product.getUuid(), product.getName(), product.getDescription(),
+                    product.getBasePrice() });
+        }
+        return rows;
+    }
+
+    private static List<UUID> uuids(List<Hit> hits) {
+        return hits.stream().map(Hit::uuid).toList();
+    }
+}
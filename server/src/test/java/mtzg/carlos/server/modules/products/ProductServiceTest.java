@@ -0,0 +1,45 @@
+package mtzg.carlos.server.modules.products;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import mtzg.carlos.server.modules.products.dto.ProductRegisterDto;
+
+@SpringBootTest
+@ActiveProfiles("it")
+class ProductServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void namesDifferingOnlyInCaseOrAccentsConflict() {
+        String name = "Café de olla " + UUID.randomUUID();
+
+        assertThat(productService.registerProduct(product(name, "Molido")).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+        assertThat(productService.registerProduct(product(" CAFE  de olla " + name.substring(13), "Molido"))
+                .getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsDuplicateNames() {
+        assertThat(productService.registerProduct(product("Sin descripción " + UUID.randomUUID(), null))
+                .getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private static ProductRegisterDto product(String name, String description) {
+        return ProductRegisterDto.builder()
+                .name(name)
+                .description(description)
+                .basePrice(25)
+                .build();
+    }
+}
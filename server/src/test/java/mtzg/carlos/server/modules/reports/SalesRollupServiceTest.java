@@ -0,0 +1,191 @@
+package mtzg.carlos.server.modules.reports;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mtzg.carlos.server.modules.orders.OrderModel;
+import mtzg.carlos.server.modules.products.IProductRepository;
+import mtzg.carlos.server.modules.products.ProductModel;
+import mtzg.carlos.server.modules.stores.IStoreRepository;
+import mtzg.carlos.server.modules.stores.StoreModel;
+import mtzg.carlos.server.modules.users.IUserRepository;
+import mtzg.carlos.server.modules.users.Role;
+import mtzg.carlos.server.modules.users.UserModel;
+import mtzg.carlos.server.modules.visits.IVisitRepository;
+import mtzg.carlos.server.modules.visits.VisitModel;
+
+/**
+ * Runs the rollup upserts on H2 in MySQL mode. Each test works on its own
+ * day, driver and store, so rows left by other tests don't get in the way.
+ */
+@SpringBootTest
+@ActiveProfiles("it")
+class SalesRollupServiceTest {
+
+    private static final AtomicInteger DAYS = new AtomicInteger();
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private IVisitRepository visitRepository;
+
+    @Autowired
+    private IStoreRepository storeRepository;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDate day;
+    private UserModel driver;
+    private StoreModel store;
+    private ProductModel soda;
+    private ProductModel chips;
+
+    @BeforeEach
+    void setUp() {
+        day = LocalDate.of(2020, 1, 1).plusDays(DAYS.getAndIncrement());
+        driver = userRepository.save(UserModel.builder()
+                .uuid(UUID.randomUUID())
+                .name("Rollup driver")
+                .email(UUID.randomUUID() + "@rollup.test")
+                .password("password")
+                .role(Role.USER)
+                .stores(new HashSet<>())
+                .build());
+        store = storeRepository.save(StoreModel.builder()
+                .uuid(UUID.randomUUID())
+                .name("Rollup store " + UUID.randomUUID())
+                .address("Address")
+                .latitude(18.85)
+                .longitude(-99.22)
+                .build());
+        soda = product();
+        chips = product();
+    }
+
+    @Test
+    void recordedVisitsAddUp() {
+        salesRollupService.recordVisit(visit(Map.of(soda, 2, chips, 1)));
+        salesRollupService.recordVisit(visit(Map.of(soda, 3)));
+
+        assertThat(driverRows()).containsExactly(List.of(2L, 6L, 54.0));
+        assertThat(productRow(soda)).containsExactly(5L, 50.0, 2L);
+        assertThat(productRow(chips)).containsExactly(1L, 4.0, 1L);
+    }
+
+    @Test
+    void registeringThenDeletingAVisitLeavesNoRows() {
+        VisitModel visit = visit(Map.of(soda, 2, chips, 1));
+
+        salesRollupService.recordVisit(visit);
+        salesRollupService.revertVisit(visit);
+
+        assertThat(driverRows()).isEmpty();
+        assertThat(storeRows()).isEmpty();
+    }
+
+    @Test
+    void deletingOneVisitKeepsTheOthers() {
+        VisitModel first = visit(Map.of(soda, 2));
+        VisitModel second = visit(Map.of(soda, 1, chips, 4));
+        salesRollupService.recordVisit(first);
+        salesRollupService.recordVisit(second);
+
+        salesRollupService.revertVisit(second);
+
+        assertThat(driverRows()).containsExactly(List.of(1L, 2L, 20.0));
+        assertThat(productRow(soda)).containsExactly(2L, 20.0, 1L);
+        assertThat(productRow(chips)).isEmpty();
+    }
+
+    @Test
+    void rebuildMatchesTheIncrementalRollups() {
+        salesRollupService.recordVisit(visit(Map.of(soda, 2, chips, 1)));
+        salesRollupService.recordVisit(visit(Map.of(chips, 6)));
+        List<List<Object>> driverRollup = driverRows();
+        List<List<Object>> storeRollup = storeRows();
+        assertThat(driverRollup).containsExactly(List.of(2L, 9L, 48.0));
+
+        salesRollupService.rebuild();
+
+        assertThat(driverRows()).isEqualTo(driverRollup);
+        assertThat(storeRows()).isEqualTo(storeRollup);
+    }
+
+    // Ten per soda, four per bag of chips
+    private VisitModel visit(Map<ProductModel, Integer> quantities) {
+        VisitModel visit = VisitModel.builder()
+                .uuid(UUID.randomUUID())
+                .date(day)
+                .validation(true)
+                .user(driver)
+                .store(store)
+                .orders(new HashSet<>())
+                .build();
+        quantities.forEach((product, quantity) -> visit.getOrders().add(OrderModel.builder()
+                .uuid(UUID.randomUUID())
+                .quantity(quantity)
+                .unitPrice(product.getBasePrice())
+                .total(quantity * product.getBasePrice())
+                .visit(visit)
+                .product(product)
+                .build()));
+        return visitRepository.save(visit);
+    }
+
+    private ProductModel product() {
+        boolean first = soda == null;
+        return productRepository.save(ProductModel.builder()
+                .uuid(UUID.randomUUID())
+                .name("Rollup product " + UUID.randomUUID())
+                .description("Description")
+                .basePrice(first ? 10 : 4)
+                .stores(new HashSet<>())
+                .build());
+    }
+
+    // [visit count, quantity, revenue] for the test's driver and day
+    private List<List<Object>> driverRows() {
+        return jdbcTemplate.query("SELECT visit_count, quantity, revenue FROM daily_driver_sales "
+                + "WHERE sales_date = ? AND user_id = ?",
+                (row, i) -> List.<Object>of((long) row.getInt(1), row.getLong(2), row.getDouble(3)),
+                day, driver.getId());
+    }
+
+    // [product id, quantity, revenue, order count] for the test's store and day
+    private List<List<Object>> storeRows() {
+        return jdbcTemplate.query("SELECT product_id, quantity, revenue, order_count FROM daily_store_product_sales "
+                + "WHERE sales_date = ? AND store_id = ? ORDER BY product_id",
+                (row, i) -> List.<Object>of(row.getLong(1), row.getLong(2), row.getDouble(3), (long) row.getInt(4)),
+                day, store.getId());
+    }
+
+    // [quantity, revenue, order count] of one product, empty when it has no row
+    private List<Object> productRow(ProductModel product) {
+        return storeRows().stream()
+                .filter(row -> row.get(0).equals(product.getId()))
+                .findFirst()
+                .map(row -> row.subList(1, row.size()))
+                .orElse(List.of());
+    }
+}
@@ -0,0 +1,56 @@
+package mtzg.carlos.server.modules.routes;
+
+import java.util.SplittableRandom;
+
+/**
+ * Standalone benchmark for {@link RouteOptimizer} on synthetic instances.
+ * Run with:
+ *
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes mtzg.carlos.server.modules.routes.RouteOptimizerBenchmark
+ * </pre>
+ *
+ * It prints the greedy nearest-neighbour length, the optimized length and the
+ * wall time for 50 to 500 stops scattered over a 30 km square.
+ */
+public class RouteOptimizerBenchmark {
+
+    private static final int[] SIZES = { 50, 100, 200, 500 };
+    private static final double CENTER_LAT = 18.85;
+    private static final double CENTER_LNG = -99.22;
+    private static final double SPREAD_DEGREES = 0.27;
+
+    public static void main(String[] args) {
+        long budget = args.length > 0 ? Long.parseLong(args[0]) : 200;
+        RouteOptimizer optimizer = new RouteOptimizer(budget, 0);
+        try {
+            System.out.printf("%6s %14s %14s %9s %9s%n", "stops", "greedy (m)", "optimized (m)", "gain", "time (ms)");
+            for (int size : SIZES) {
+                double[][] points = randomPoints(size, new SplittableRandom(size));
+                double[][] distances = RouteOptimizer.distanceMatrix(points);
+                double greedy = RouteOptimizer.length(RouteOptimizer.nearestNeighbour(distances, 0, null), distances);
+
+                optimizer.optimize(points, false);
+                long start = System.nanoTime();
+                RouteOptimizer.Result result = optimizer.optimize(points, false);
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+                System.out.printf("%6d %14.0f %14.0f %8.1f%% %9d%n", size, greedy, result.distance(),
+                        100 * (greedy - result.distance()) / greedy, elapsed);
+            }
+        } finally {
+            optimizer.shutdown();
+        }
+    }
+
+    private static double[][] randomPoints(int size, SplittableRandom random) {
+        double[][] points = new double[size][];
+        for (int i = 0; i < size; i++) {
+            points[i] = new double[] {
+                    CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEGREES,
+                    CENTER_LNG + (random.nextDouble() - 0.5) * SPREAD_DEGREES };
+        }
+        return points;
+    }
+}
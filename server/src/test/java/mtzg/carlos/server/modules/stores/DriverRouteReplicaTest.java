@@ -0,0 +1,170 @@
+package mtzg.carlos.server.modules.stores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+import mtzg.carlos.server.modules.routes.RouteService;
+import mtzg.carlos.server.modules.routes.dto.RouteRequestDto;
+import mtzg.carlos.server.modules.stores.dto.StoreResponseDto;
+import mtzg.carlos.server.modules.users.IUserRepository;
+import mtzg.carlos.server.modules.users.Role;
+import mtzg.carlos.server.modules.users.UserModel;
+import mtzg.carlos.server.utils.ReadReplicaRouter;
+
+/**
+ * Runs the application on two H2 databases, a primary and a replica that only
+ * changes when the test copies the primary into it, so the replica lags
+ * behind every write made after the copy.
+ */
+@SpringBootTest
+@ActiveProfiles("it")
+class DriverRouteReplicaTest {
+
+    private static final HikariDataSource PRIMARY = pool("primary", "replica-test-primary");
+    private static final HikariDataSource REPLICA = pool("replica", "replica-test-replica");
+
+    @TestConfiguration
+    static class ReplicaConfig {
+
+        @Bean
+        @Primary
+        ReadReplicaRouter replicaTestRouter() {
+            // Read-only loaders run at startup, before the first copy
+            Flyway.configure().dataSource(REPLICA).load().migrate();
+            return new ReadReplicaRouter(PRIMARY, REPLICA, 5) {
+                // H2 has no replication status; the replica stays in rotation
+                @Override
+                public void checkReplica() {
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private DriverRouteService driverRouteService;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private IStoreRepository storeRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void routeReadAfterEvictionComesFromThePrimary() throws IOException {
+        UserModel driver = saveDriver();
+        StoreModel store = saveStore();
+        replicate();
+        assertThat(driverRouteService.getRoute(driver.getUuid(), false)).hasValue(List.of());
+
+        // Evicts the cached route once committed; the replica never sees the assignment
+        assertThat(routeService.assignStoreToUser(new RouteRequestDto(driver.getUuid(), store.getUuid()))
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<Object[]> replicaRoute = transaction(true).execute(
+                status -> storeRepository.findRouteProductUuidsByDriverUuid(driver.getUuid()));
+        assertThat(replicaRoute).isEmpty();
+
+        for (int read = 0; read < 2; read++) {
+            assertThat(driverRouteService.getRoute(driver.getUuid(), false)).hasValueSatisfying(
+                    route -> assertThat(route).extracting(StoreResponseDto::getUuid).containsExactly(store.getUuid()));
+        }
+    }
+
+    @Test
+    void onlyPrimaryReadsFillTheSecondLevelCache() throws IOException {
+        StoreModel store = saveStore();
+        replicate();
+        entityManagerFactory.getCache().evictAll();
+
+        Optional<StoreModel> fromReplica = transaction(true).execute(status -> storeRepository.findById(store.getId()));
+        assertThat(fromReplica).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(StoreModel.class, store.getId())).isFalse();
+
+        Optional<StoreModel> fromPrimary = transaction(false).execute(status -> storeRepository.findById(store.getId()));
+        assertThat(fromPrimary).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(StoreModel.class, store.getId())).isTrue();
+    }
+
+    private UserModel saveDriver() {
+        UUID uuid = UUID.randomUUID();
+        return userRepository.save(UserModel.builder()
+                .uuid(uuid)
+                .name("Driver")
+                .email(uuid + "@replica.test")
+                .password("password")
+                .role(Role.USER)
+                .stores(new HashSet<>())
+                .build());
+    }
+
+    private StoreModel saveStore() {
+        UUID uuid = UUID.randomUUID();
+        return storeRepository.save(StoreModel.builder()
+                .uuid(uuid)
+                .name("Store " + uuid)
+                .address("Address")
+                .latitude(18.85)
+                .longitude(-99.22)
+                .build());
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    // Replaces the replica with a copy of the primary as of now
+    private static void replicate() throws IOException {
+        Path snapshot = Files.createTempFile("replica", ".sql");
+        try {
+            new JdbcTemplate(PRIMARY).execute("SCRIPT TO '" + snapshot + "'");
+            JdbcTemplate replica = new JdbcTemplate(REPLICA);
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + snapshot + "'");
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
+    private static HikariDataSource pool(String name, String database) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + database
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        return dataSource;
+    }
+}
@@ -0,0 +1,179 @@
+package mtzg.carlos.server.modules.stores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import mtzg.carlos.server.modules.stores.StoreSpatialIndex.Match;
+import mtzg.carlos.server.utils.GeoUtils;
+
+class StoreSpatialIndexTest {
+
+    // On a cell corner: 18.90 and -99.20 are multiples of the cell size
+    private static final double LAT = 18.90;
+    private static final double LNG = -99.20;
+
+    private final IStoreRepository storeRepository = mock(IStoreRepository.class);
+    private final StoreSpatialIndex index = new StoreSpatialIndex(storeRepository);
+
+    @Test
+    void returnsTheStoresWithinTheRadiusNearestFirst() {
+        StoreModel near = store(north(100), LNG);
+        StoreModel middle = store(north(500), LNG);
+        store(north(1_500), LNG);
+
+        assertThat(uuids(index.nearby(LAT, LNG, 1_000, 10, null))).containsExactly(near.getUuid(),
+                middle.getUuid());
+    }
+
+    @Test
+    void keepsOnlyTheNearestUpToTheLimit() {
+        List<StoreModel> stores = new ArrayList<>();
+        for (int i = 5; i >= 1; i--) {
+            stores.add(store(north(100 * i), LNG));
+        }
+
+        List<Match> matches = index.nearby(LAT, LNG, 1_000, 2, null);
+
+        assertThat(uuids(matches)).containsExactly(stores.get(4).getUuid(), stores.get(3).getUuid());
+        assertThat(matches.get(0).distance()).isCloseTo(100, within(1d));
+    }
+
+    @Test
+    void findsStoresInEveryCellAroundTheCorner() {
+        double delta = 0.002;
+        StoreModel northEast = store(LAT + delta, LNG + delta);
+        StoreModel northWest = store(LAT + delta, LNG - delta);
+        StoreModel southEast = store(LAT - delta, LNG + delta);
+        StoreModel southWest = store(LAT - delta, LNG - delta);
+        // Far away cells, so the query walks the grid instead of scanning every store
+        for (int i = 1; i <= 10; i++) {
+            store(LAT + i, LNG + i);
+        }
+
+        assertThat(uuids(index.nearby(LAT, LNG, 400, 10, null))).containsExactlyInAnyOrder(northEast.getUuid(),
+                northWest.getUuid(), southEast.getUuid(), southWest.getUuid());
+        assertThat(uuids(index.nearby(LAT + delta, LNG + delta, 10, 10, null)))
+                .containsExactly(northEast.getUuid());
+    }
+
+    @Test
+    void onlyConsidersTheCandidates() {
+        store(north(100), LNG);
+        StoreModel far = store(north(200), LNG);
+
+        assertThat(uuids(index.nearby(LAT, LNG, 1_000, 10, Set.of(far.getUuid())))).containsExactly(far.getUuid());
+        assertThat(uuids(index.nearby(LAT, LNG, 1_000, 10, Set.of()))).isEmpty();
+    }
+
+    @Test
+    void movingAStoreLeavesNoCopyInItsOldCell() {
+        StoreModel store = store(LAT + 0.01, LNG + 0.01);
+        store.setLatitude(LAT + 0.21);
+        store.setLongitude(LNG + 0.21);
+        index.put(store);
+
+        assertThat(index.nearby(LAT + 0.01, LNG + 0.01, 100, 10, null)).isEmpty();
+        assertThat(uuids(index.nearby(LAT + 0.21, LNG + 0.21, 100, 10, null))).containsExactly(store.getUuid());
+
+        index.remove(store.getUuid());
+        assertThat(index.nearby(LAT + 0.21, LNG + 0.21, 100, 10, null)).isEmpty();
+        assertThat(index.get(store.getUuid())).isNull();
+    }
+
+    @Test
+    void concurrentPutsOfOneStoreLeaveASingleCopy() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        double[][] positions = { { LAT + 0.01, LNG + 0.01 }, { LAT + 0.11, LNG + 0.11 }, { LAT + 0.21, LNG + 0.21 },
+                { LAT + 0.31, LNG + 0.31 } };
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(positions.length);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (double[] position : positions) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 2_000; i++) {
+                        index.put(StoreModel.builder().uuid(uuid).name("Store").address("Address")
+                                .latitude(position[0]).longitude(position[1]).build());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        StoreSpatialIndex.StoreLocation last = index.get(uuid);
+        int copies = 0;
+        for (double[] position : positions) {
+            List<Match> matches = index.nearby(position[0], position[1], 100, 10, null);
+            copies += matches.size();
+            if (position[0] == last.latitude()) {
+                assertThat(uuids(matches)).containsExactly(uuid);
+            }
+        }
+        assertThat(copies).isEqualTo(1);
+    }
+
+    @Test
+    void loadPicksUpStoresWrittenElsewhere() {
+        UUID kept = UUID.randomUUID();
+        UUID moved = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        UUID created = UUID.randomUUID();
+        when(storeRepository.findAllLocations()).thenReturn(List.of(
+                row(kept, north(100)), row(moved, north(200)), row(deleted, north(300))));
+        index.load();
+        assertThat(uuids(index.nearby(LAT, LNG, 1_000, 10, null))).containsExactly(kept, moved, deleted);
+
+        when(storeRepository.findAllLocations()).thenReturn(List.of(
+                row(kept, north(100)), row(moved, north(5_000)), row(created, north(50))));
+        index.load();
+
+        assertThat(uuids(index.nearby(LAT, LNG, 1_000, 10, null))).containsExactly(created, kept);
+        assertThat(uuids(index.nearby(north(5_000), LNG, 100, 10, null))).containsExactly(moved);
+        assertThat(index.get(deleted)).isNull();
+    }
+
+    private StoreModel store(double latitude, double longitude) {
+        StoreModel store = StoreModel.builder()
+                .uuid(UUID.randomUUID())
+                .name("Store")
+                .address("Address")
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+        index.put(store);
+        return store;
+    }
+
+    private static Object[] row(UUID uuid, double latitude) {
+        return new Object[] { uuid, "Store", "Address", latitude, LNG, null };
+    }
+
+    private static double north(double meters) {
+        return LAT + meters / GeoUtils.METERS_PER_DEGREE;
+    }
+
+    private static List<UUID> uuids(List<Match> matches) {
+        return matches.stream().map(match -> match.location().uuid()).toList();
+    }
+}
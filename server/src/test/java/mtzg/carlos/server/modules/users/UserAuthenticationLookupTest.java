@@ -0,0 +1,62 @@
+package mtzg.carlos.server.modules.users;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Changes users over JDBC, the way another node's writes look from this one:
+ * they never reach this node's caches.
+ */
+@SpringBootTest
+@ActiveProfiles("it")
+class UserAuthenticationLookupTest {
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void demotedAndDeletedUsersAreSeenOnTheNextLookup() {
+        UserModel admin = userRepository.save(UserModel.builder()
+                .uuid(UUID.randomUUID())
+                .name("Admin")
+                .email(UUID.randomUUID() + "@auth.test")
+                .password("password")
+                .role(Role.ADMIN)
+                .stores(new HashSet<>())
+                .build());
+        assertThat(authorities(admin.getEmail())).containsExactly(Role.ADMIN.name());
+        userRepository.findByUuid(admin.getUuid());
+
+        jdbcTemplate.update("UPDATE `user` SET role = ? WHERE id = ?", Role.USER.name(), admin.getId());
+        assertThat(authorities(admin.getEmail())).containsExactly(Role.USER.name());
+
+        jdbcTemplate.update("DELETE FROM `user` WHERE id = ?", admin.getId());
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername(admin.getEmail()))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    private List<String> authorities(String email) {
+        return userDetailsService.loadUserByUsername(email).getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+}
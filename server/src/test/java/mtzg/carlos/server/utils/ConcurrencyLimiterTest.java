@@ -0,0 +1,146 @@
+package mtzg.carlos.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // Limit between 10 and 20, a fifth kept for critical requests, halved on overload
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 20, 0.2, 0.5);
+
+    @Test
+    void startsAtTheMaximumLimit() {
+        assertThat(limiter.limit()).isEqualTo(20);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void normalRequestsLeaveTheReserveToCriticalOnes() {
+        acquire(16, false);
+        assertThat(limiter.tryAcquire(false)).isFalse();
+
+        acquire(4, true);
+        assertThat(limiter.tryAcquire(true)).isFalse();
+        assertThat(limiter.inFlight()).isEqualTo(20);
+    }
+
+    @Test
+    void releasingFreesTheSlot() {
+        acquire(16, false);
+        assertThat(limiter.tryAcquire(false)).isFalse();
+
+        limiter.release(THRESHOLD);
+        assertThat(limiter.inFlight()).isEqualTo(15);
+        assertThat(limiter.tryAcquire(false)).isTrue();
+    }
+
+    @Test
+    void backsOffWhenSaturatedDownToTheMinimum() {
+        limiter.adjust(THRESHOLD, true);
+        assertThat(limiter.limit()).isEqualTo(10);
+
+        limiter.adjust(THRESHOLD, true);
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void backsOffWhenTheAverageLatencyIsOverTheThreshold() {
+        acquire(2, false);
+        limiter.release(3 * THRESHOLD);
+        limiter.release(0);
+
+        assertThat(limiter.adjust(THRESHOLD, false)).isEqualTo(3 * THRESHOLD / 2);
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void releasesWithoutLatencyAreLeftOutOfTheAverage() {
+        acquire(3, false);
+        limiter.release(THRESHOLD / 2);
+        limiter.release();
+        limiter.release();
+
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.adjust(THRESHOLD, false)).isEqualTo(THRESHOLD / 2);
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void growsWhileTheLimitIsTheBottleneckUpToTheMaximum() {
+        limiter.adjust(THRESHOLD, true);
+        assertThat(limiter.limit()).isEqualTo(10);
+
+        // A window that never came near the limit doesn't grow it
+        acquire(7, false);
+        release(7);
+        limiter.adjust(THRESHOLD, false);
+        assertThat(limiter.limit()).isEqualTo(10);
+
+        acquire(8, false);
+        release(8);
+        limiter.adjust(THRESHOLD, false);
+        assertThat(limiter.limit()).isEqualTo(11);
+
+        for (int window = 0; window < 20; window++) {
+            acquire((int) (limiter.limit() * 0.8), false);
+            release((int) (limiter.limit() * 0.8));
+            limiter.adjust(THRESHOLD, false);
+        }
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedTheirShare() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> admitted = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                boolean critical = t % 2 == 0;
+                admitted.add(executor.submit(() -> {
+                    start.await();
+                    int acquired = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire(critical)) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : admitted) {
+                total += future.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(20);
+            assertThat(limiter.inFlight()).isEqualTo(20);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void acquire(int requests, boolean critical) {
+        for (int i = 0; i < requests; i++) {
+            assertThat(limiter.tryAcquire(critical)).isTrue();
+        }
+    }
+
+    private void release(int requests) {
+        for (int i = 0; i < requests; i++) {
+            limiter.release();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package mtzg.carlos.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+/**
+ * Checks the hand-written PNG encoder against the JDK's decoder and the QR
+ * codes it produces against ZXing's reader.
+ */
+class QrUtilsTest {
+
+    private static final int BLACK = 0xff000000;
+    private static final int WHITE = 0xffffffff;
+
+    // Sizes that do and don't fill the last byte of a scanline; 0 is the bare matrix
+    @ParameterizedTest
+    @CsvSource({ "250", "256", "0", "37" })
+    void pngHasThePixelsOfTheMatrix(int size) throws WriterException, IOException {
+        BitMatrix matrix = new QRCodeWriter().encode("https://localhost/api/v1/stores/" + size,
+                BarcodeFormat.QR_CODE, size, size);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(QrUtils.toPng(matrix)));
+
+        assertThat(image).isNotNull();
+        assertThat(image.getWidth()).isEqualTo(matrix.getWidth());
+        assertThat(image.getHeight()).isEqualTo(matrix.getHeight());
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                assertThat(image.getRGB(x, y))
+                        .as("pixel (%d, %d)", x, y)
+                        .isEqualTo(matrix.get(x, y) ? BLACK : WHITE);
+            }
+        }
+    }
+
+    @Test
+    void generatedQrCodeDecodesToItsContent(@TempDir Path dir) throws Exception {
+        String content = "http://localhost:8080/api/v1/stores/6f1c2a4e-8b1d-4c55-9e0b-2f3a7d9c1b42";
+
+        String file = QrUtils.generateQrImage(content, "store", dir.toString());
+
+        BufferedImage image = ImageIO.read(Path.of(file).toFile());
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+        assertThat(new QRCodeReader().decode(bitmap).getText()).isEqualTo(content);
+    }
+}
@@ -0,0 +1,115 @@
+package mtzg.carlos.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    // Ten tokens a second, one every 100 ms
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long START = TimeUnit.SECONDS.toNanos(1_000);
+
+    @Test
+    void allowsABurstThenRefusesWithTheWaitForTheNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(START)).isZero();
+        }
+        assertThat(bucket.tryAcquire(START)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(START + INTERVAL / 4)).isEqualTo(INTERVAL * 3 / 4);
+    }
+
+    @Test
+    void refusedRequestsTakeNothing() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+
+        assertThat(bucket.tryAcquire(START)).isZero();
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryAcquire(START)).isEqualTo(INTERVAL);
+        }
+        assertThat(bucket.tryAcquire(START + INTERVAL)).isZero();
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(START);
+        }
+
+        assertThat(bucket.tryAcquire(START + INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(START + INTERVAL)).isPositive();
+
+        // Three intervals later three more tokens, and no more
+        long later = START + 4 * INTERVAL;
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(later)).isZero();
+        }
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void neverHoldsMoreThanTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        assertThat(bucket.tryAcquire(START)).isZero();
+
+        long muchLater = START + TimeUnit.HOURS.toNanos(1);
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(muchLater)).isZero();
+        }
+        assertThat(bucket.tryAcquire(muchLater)).isPositive();
+    }
+
+    @Test
+    void isFullOnceEveryTakenTokenHasRefilled() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        assertThat(bucket.isFull(START)).isTrue();
+
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+        assertThat(bucket.isFull(START + INTERVAL)).isFalse();
+        assertThat(bucket.isFull(START + 2 * INTERVAL)).isTrue();
+    }
+
+    @Test
+    void concurrentRequestsNeverTakeMoreThanTheBurst() throws Exception {
+        int threads = 8;
+        int attempts = 1_000;
+        TokenBucket bucket = new TokenBucket(0.001, 100);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> taken = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                taken.add(executor.submit(() -> {
+                    start.await();
+                    int acquired = 0;
+                    for (int i = 0; i < attempts; i++) {
+                        if (bucket.tryAcquire(START) == 0) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : taken) {
+                total += future.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(100);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
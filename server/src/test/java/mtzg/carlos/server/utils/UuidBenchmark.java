@@ -0,0 +1,137 @@
+package mtzg.carlos.server.utils;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Standalone benchmark comparing random v4 UUIDs with {@link UuidUtils#v7()}.
+ * Run with:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) mtzg.carlos.server.utils.UuidBenchmark
+ * </pre>
+ *
+ * It always prints generator throughput. When {@code DB_HOST} (plus the usual
+ * {@code DB_PORT}, {@code DB_NAME}, {@code DB_USERNAME}, {@code DB_PASSWORD})
+ * is set it also inserts {@code BENCH_ROWS} rows (default 500000) into two
+ * scratch tables shaped like the entity tables, a bigint primary key plus a
+ * unique BINARY(16) uuid, and prints insert throughput and index size for
+ * each. The scratch tables are dropped afterwards.
+ */
+public class UuidBenchmark {
+
+    private static final int GENERATED = 5_000_000;
+    private static final int BATCH = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-4s %16s %16s%n", "kind", "1 thread (M/s)", "4 threads (M/s)");
+        generation("v4", UUID::randomUUID);
+        generation("v7", UuidUtils::v7);
+
+        String host = System.getenv("DB_HOST");
+        if (host == null) {
+            System.out.println("DB_HOST not set, skipping the insert benchmark");
+            return;
+        }
+        String url = String.format("jdbc:mysql://%s:%s/%s?rewriteBatchedStatements=true", host,
+                System.getenv().getOrDefault("DB_PORT", "3306"),
+                System.getenv().getOrDefault("DB_NAME", "pwa_abarrotes"));
+        int rows = Integer.parseInt(System.getenv().getOrDefault("BENCH_ROWS", "500000"));
+        try (Connection connection = DriverManager.getConnection(url,
+                System.getenv().getOrDefault("DB_USERNAME", "root"),
+                System.getenv().getOrDefault("DB_PASSWORD", ""))) {
+            System.out.printf("%-4s %10s %14s %14s %14s%n", "kind", "rows", "inserts/s", "data (MiB)", "index (MiB)");
+            insertion(connection, "v4", UUID::randomUUID, rows);
+            insertion(connection, "v7", UuidUtils::v7, rows);
+        }
+    }
+
+    private static void generation(String kind, Supplier<UUID> generator) throws Exception {
+        consume(generator, GENERATED);
+        long start = System.nanoTime();
+        consume(generator, GENERATED);
+        double single = GENERATED / ((System.nanoTime() - start) / 1e9) / 1e6;
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            start = System.nanoTime();
+            Future<?>[] futures = new Future<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = pool.submit(() -> consume(generator, GENERATED));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double parallel = 4L * GENERATED / ((System.nanoTime() - start) / 1e9) / 1e6;
+        System.out.printf("%-4s %16.1f %16.1f%n", kind, single, parallel);
+    }
+
+    private static long consume(Supplier<UUID> generator, int count) {
+        long sink = 0;
+        for (int i = 0; i < count; i++) {
+            sink ^= generator.get().getLeastSignificantBits();
+        }
+        return sink;
+    }
+
+    private static void insertion(Connection connection, String kind, Supplier<UUID> generator, int rows)
+            throws Exception {
+        String table = "uuid_bench_" + kind;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+                    + "uuid BINARY(16) NOT NULL, UNIQUE KEY uk_" + table + " (uuid)) ENGINE=InnoDB");
+        }
+        try {
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " (uuid) VALUES (?)")) {
+                ByteBuffer buffer = ByteBuffer.allocate(16);
+                for (int i = 1; i <= rows; i++) {
+                    UUID uuid = generator.get();
+                    buffer.clear();
+                    buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+                    insert.setBytes(1, buffer.array().clone());
+                    insert.addBatch();
+                    if (i % BATCH == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            double perSecond = rows / ((System.nanoTime() - start) / 1e9);
+            connection.setAutoCommit(true);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE TABLE " + table);
+                try (ResultSet result = statement.executeQuery("SELECT data_length, index_length "
+                        + "FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = '" + table
+                        + "'")) {
+                    result.next();
+                    System.out.printf("%-4s %10d %14.0f %14.1f %14.1f%n", kind, rows, perSecond,
+                            result.getLong(1) / 1048576d, result.getLong(2) / 1048576d);
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + table);
+            }
+        }
+    }
+}